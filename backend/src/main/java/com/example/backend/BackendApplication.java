@@ -6,12 +6,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.backend.config.FileStorageProperties;
 import com.example.backend.service.DepartmentService;
 import com.example.backend.service.EventCategoryService;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableConfigurationProperties(FileStorageProperties.class)
 public class BackendApplication {
 
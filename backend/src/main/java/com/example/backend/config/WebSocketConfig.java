@@ -0,0 +1,63 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.security.Principal;
+import java.util.Map;
+
+// STOMP over WebSocket at /ws on Spring's in-memory broker. Clients connect with
+// ?username=<name>, which becomes the session's user, and subscribe to /user/queue/messages and
+// /user/queue/read-receipts. The REST endpoints stay available for clients that poll.
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${messages.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Override
+    public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+            .setAllowedOrigins("http://localhost:5173")
+            .setHandshakeHandler(new UsernameHandshakeHandler());
+    }
+
+    @Override
+    public void configureMessageBroker(@NonNull MessageBrokerRegistry registry) {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        registry.enableSimpleBroker("/queue")
+            .setHeartbeatValue(new long[] { heartbeatMs, heartbeatMs })
+            .setTaskScheduler(heartbeatScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    private static class UsernameHandshakeHandler extends DefaultHandshakeHandler {
+
+        @Override
+        protected Principal determineUser(@NonNull ServerHttpRequest request, @NonNull WebSocketHandler wsHandler,
+                @NonNull Map<String, Object> attributes) {
+            String username = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst("username");
+            if (username == null || username.isBlank()) {
+                return null;
+            }
+            return () -> username;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import com.example.backend.service.GigService;
 import com.example.backend.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,11 @@ public class GigController {
         return ResponseEntity.ok(gigs);
     }
     
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllGigs() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(gigService.streamAllGigs());
+    }
+    
     @GetMapping("/user/{username}")
     public ResponseEntity<List<Gig>> getGigsByUsername(@PathVariable String username) {
         List<Gig> gigs = gigService.getGigsByUsername(username);
@@ -0,0 +1,36 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.TrendingHashtag;
+import com.example.backend.service.TrendingHashtagService;
+import com.example.backend.service.TrendingHashtagService.TrendingWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/hashtags")
+@CrossOrigin(origins = "http://localhost:5173")
+public class HashtagController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private TrendingHashtagService trendingHashtagService;
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        TrendingWindow trendingWindow = TrendingWindow.fromParam(window);
+        if (trendingWindow == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported window: " + window));
+        }
+
+        List<TrendingHashtag> trending = trendingHashtagService.getTrending(
+            trendingWindow, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok(trending);
+    }
+}
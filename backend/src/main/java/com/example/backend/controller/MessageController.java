@@ -1,16 +1,26 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.ConversationPage;
+import com.example.backend.dto.MessagePage;
 import com.example.backend.dto.MessageRequest;
+import com.example.backend.dto.MessageSync;
+import com.example.backend.dto.UserSummary;
 import com.example.backend.model.Message;
-import com.example.backend.model.Users;
-import com.example.backend.repository.MessageRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.service.ConversationService;
+import com.example.backend.service.JsonStreamingService;
+import com.example.backend.service.MessageSyncService;
+import com.example.backend.service.UserSummaryCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
+import java.security.Principal;
 import java.util.*;
 
 @RestController
@@ -19,28 +29,21 @@ import java.util.*;
 public class MessageController {
 
     @Autowired
-    private MessageRepository messageRepository;
+    private UserSummaryCache userSummaryCache;
     
     @Autowired
-    private UserRepository userRepository;
+    private JsonStreamingService jsonStreamingService;
+    
+    @Autowired
+    private ConversationService conversationService;
+    
+    @Autowired
+    private MessageSyncService messageSyncService;
     
     @PostMapping("/send")
     public ResponseEntity<Message> sendMessage(@RequestBody MessageRequest messageRequest) {
         try {
-            Message message = new Message();
-            message.setFromUsername(messageRequest.getFromUsername());
-            message.setToUsername(messageRequest.getToUsername());
-            message.setText(messageRequest.getText());
-            message.setTimestamp(LocalDateTime.now());
-            message.setRead(false);
-            
-            if (messageRequest.getAttachmentUrl() != null && !messageRequest.getAttachmentUrl().isEmpty()) {
-                message.setAttachmentUrl(messageRequest.getAttachmentUrl());
-                message.setAttachmentType(messageRequest.getAttachmentType());
-                message.setAttachmentName(messageRequest.getAttachmentName());
-            }
-            
-            Message savedMessage = messageRepository.save(message);
+            Message savedMessage = conversationService.sendMessage(messageRequest);
             return ResponseEntity.ok(savedMessage);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -48,82 +51,98 @@ public class MessageController {
     }
     
     @GetMapping("/conversation/{otherUsername}")
-    public ResponseEntity<List<Message>> getConversation(
+    public ResponseEntity<?> getConversation(
             @PathVariable String otherUsername,
-            @RequestParam String username) {
+            @RequestParam String username,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
         
-        List<Message> messages = messageRepository.findConversationMessages(username, otherUsername);
-        
-        for (Message message : messages) {
-            if (message.getToUsername().equals(username) && !message.isRead()) {
-                message.setRead(true);
-                messageRepository.save(message);
-            }
+        if (before == null && limit == null) {
+            List<Message> messages = conversationService.getConversation(username, otherUsername);
+            return ResponseEntity.ok(messages);
         }
         
-        return ResponseEntity.ok(messages);
+        MessagePage page = conversationService.getConversationPage(username, otherUsername, before, limit);
+        return ResponseEntity.ok(page);
     }
     
-    @GetMapping("/conversations")
-    public ResponseEntity<List<Map<String, Object>>> getConversations(@RequestParam String username) {
-        List<Map<String, Object>> result = new ArrayList<>();
-        
-        List<String> conversationUsernames = messageRepository.findConversationUsernames(username);
+    // Marks the conversation read with one update up front, then streams the messages, which
+    // therefore come back read just as they do from getConversation.
+    @GetMapping(path = "/conversation/{otherUsername}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamConversation(
+            @PathVariable String otherUsername,
+            @RequestParam String username) {
         
-        for (String otherUsername : conversationUsernames) {
-            Users user = userRepository.findByUsername(otherUsername);
-            if (user == null) continue;
-            
-            List<Message> latestMessages = messageRepository.findLatestMessagesBetween(username, otherUsername);
-            Message latestMessage = latestMessages.isEmpty() ? null : latestMessages.get(0);
-            if (latestMessage == null) continue;
-            
-            Map<String, Object> conversation = new HashMap<>();
-            conversation.put("id", otherUsername);
-            
-            Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("username", user.getUsername());
-            userInfo.put("name", user.getFirstName() + " " + user.getLastName());
-            userInfo.put("profilePhoto", user.getProfilePhoto());
-            conversation.put("user", userInfo);
-            
-            Map<String, Object> messageInfo = new HashMap<>();
-            messageInfo.put("text", latestMessage.getText());
-            messageInfo.put("timestamp", latestMessage.getTimestamp().toString());
-            boolean isUnread = latestMessage.getToUsername().equals(username) && !latestMessage.isRead();
-            messageInfo.put("unread", isUnread);
-            conversation.put("lastMessage", messageInfo);
+        conversationService.markConversationRead(username, otherUsername);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(jsonStreamingService.streamArray(
+                () -> conversationService.streamConversation(username, otherUsername)));
+    }
+    
+    // Lets a WebSocket client mark a conversation read without a REST round trip; the partner
+    // gets the read receipt on their own session.
+    @MessageMapping("/messages.read")
+    public void markConversationReadOverSocket(@Payload Map<String, String> request, Principal principal) {
+        String otherUsername = request.get("otherUsername");
+        if (principal != null && otherUsername != null) {
+            conversationService.markConversationRead(principal.getName(), otherUsername);
+        }
+    }
+    
+    @GetMapping("/conversations")
+    public ResponseEntity<?> getConversations(
+            @RequestParam String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (cursor == null && limit == null) {
+                return ResponseEntity.ok(conversationService.getInbox(username));
+            }
             
-            result.add(conversation);
+            ConversationPage page = conversationService.getInboxPage(username, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-        
-        result.sort((c1, c2) -> {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> m1 = (Map<String, Object>)c1.get("lastMessage");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> m2 = (Map<String, Object>)c2.get("lastMessage");
-            String t1 = (String)m1.get("timestamp");
-            String t2 = (String)m2.get("timestamp");
-            return t2.compareTo(t1);
-        });
-        
-        return ResponseEntity.ok(result);
+    }
+
+    // Long-poll fallback for clients without a WebSocket: answers at once when there are
+    // messages after sinceId, otherwise holds the request until one is sent or it times out.
+    @GetMapping("/sync")
+    public DeferredResult<MessageSync> syncMessages(
+            @RequestParam String username,
+            @RequestParam(required = false) Long sinceId) {
+        return messageSyncService.sync(username, sinceId);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Integer>> getUnreadCount(@RequestParam String username) {
+        return ResponseEntity.ok(Map.of("count", conversationService.getUnreadCount(username)));
     }
 
     @GetMapping("/recent")
     public ResponseEntity<List<Map<String, Object>>> getRecentMessages(@RequestParam String username) {
-        List<Message> unreadMessages = messageRepository.findRecentMessages(username);
+        List<Message> unreadMessages = conversationService.getUnreadMessages(username);
         List<Map<String, Object>> result = new ArrayList<>();
         
+        List<String> senders = new ArrayList<>();
+        for (Message message : unreadMessages) {
+            senders.add(message.getFromUsername());
+        }
+        Map<String, UserSummary> sendersByUsername = userSummaryCache.getAll(senders);
+        
         for (Message message : unreadMessages) {
             Map<String, Object> messageData = new HashMap<>();
             messageData.put("id", message.getId());
             messageData.put("sender", message.getFromUsername());
             
-            Users sender = userRepository.findByUsername(message.getFromUsername());
+            UserSummary sender = sendersByUsername.get(message.getFromUsername());
             if (sender != null) {
-                messageData.put("senderName", sender.getFirstName() + " " + sender.getLastName());
-                messageData.put("senderPhoto", sender.getProfilePhoto());
+                messageData.put("senderName", sender.name());
+                messageData.put("senderPhoto", sender.profilePhoto());
             } else {
                 messageData.put("senderName", message.getFromUsername());
                 messageData.put("senderPhoto", null);
@@ -131,7 +150,7 @@ public class MessageController {
             
             messageData.put("preview", message.getText());
             messageData.put("timestamp", message.getTimestamp());
-            messageData.put("unread", !message.isRead());
+            messageData.put("unread", true);
             
             result.add(messageData);
         }
@@ -142,11 +161,8 @@ public class MessageController {
     @PostMapping("/read/{id}")
     public ResponseEntity<?> markMessageAsRead(@PathVariable Long id, @RequestBody Map<String, String> request) {
         String username = request.get("username");
-        Message message = messageRepository.findById(id).orElse(null);
         
-        if (message != null && message.getToUsername().equals(username)) {
-            message.setRead(true);
-            messageRepository.save(message);
+        if (conversationService.markMessageAsRead(id, username)) {
             return ResponseEntity.ok().build();
         }
         
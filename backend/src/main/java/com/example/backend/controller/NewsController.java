@@ -3,9 +3,11 @@ package com.example.backend.controller;
 import com.example.backend.model.News;
 import com.example.backend.service.NewsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,11 @@ public class NewsController {
         return ResponseEntity.ok(newsService.getAllNews());
     }
     
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllNews() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(newsService.streamAllNews());
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<News> getNewsById(@PathVariable Long id) {
         return newsService.getNewsById(id)
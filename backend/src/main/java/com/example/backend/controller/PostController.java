@@ -2,40 +2,49 @@ package com.example.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.backend.model.Post;
 import com.example.backend.model.Comment;
-import com.example.backend.model.Users;
 import com.example.backend.service.PostService;
+import com.example.backend.service.FeedService;
+import com.example.backend.service.CommentThreadService;
+import com.example.backend.service.FeedVersionService;
+import com.example.backend.service.FeedEventDispatcher;
 import com.example.backend.dto.CommentRequest;
-import com.example.backend.repository.PostRepository;
-import com.example.backend.repository.ConnectionRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.dto.FeedPage;
+import com.example.backend.dto.CommentPage;
+import com.example.backend.dto.LikeCheckRequest;
+import com.example.backend.dto.LikeCheckResult;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.ArrayList;
-import java.util.Comparator;
 
 @RestController
 @RequestMapping("/api/posts")
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = "ETag")
 public class PostController {
     
     @Autowired
     private PostService postService;
     
     @Autowired
-    private PostRepository postRepository;
+    private FeedService feedService;
     
     @Autowired
-    private ConnectionRepository connectionRepository;
+    private CommentThreadService commentThreadService;
     
     @Autowired
-    private UserRepository userRepository;
+    private FeedVersionService feedVersionService;
+    
+    @Autowired
+    private FeedEventDispatcher feedEventDispatcher;
     
     @PostMapping("")
     public ResponseEntity<Post> createPost(@RequestBody Map<String, Object> request) {
@@ -56,9 +65,16 @@ public class PostController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Post>> getUserPosts(@RequestParam String username) {
+    public ResponseEntity<List<Post>> getUserPosts(@RequestParam String username, WebRequest webRequest) {
+        // The version is read before the posts, so a concurrent write can only make the
+        // returned tag older than the data, never newer.
+        String etag = feedVersionService.postsETag(username);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         List<Post> posts = postService.getPostsByUsername(username);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().eTag(etag).body(posts);
     }
 
     @PostMapping("/{id}/like")
@@ -94,6 +110,18 @@ public class PostController {
         }
     }
 
+    @PostMapping("/likes/check")
+    public ResponseEntity<?> checkLikes(@RequestBody LikeCheckRequest request) {
+        try {
+            LikeCheckResult result = postService.checkLikes(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/{id}/comments")
     public ResponseEntity<Comment> addComment(
             @PathVariable("id") Long postId,
@@ -120,10 +148,35 @@ public class PostController {
     }
     
     @GetMapping("/{id}/comments")
-    public ResponseEntity<List<Comment>> getComments(@PathVariable("id") Long postId) {
+    public ResponseEntity<?> getComments(
+            @PathVariable("id") Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Comment> comments = postService.getCommentsByPostId(postId);
-            return ResponseEntity.ok(comments);
+            if (cursor == null && limit == null) {
+                List<Comment> comments = postService.getCommentsByPostId(postId);
+                return ResponseEntity.ok(comments);
+            }
+            
+            CommentPage page = commentThreadService.getComments(postId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/comments/{commentId}/replies")
+    public ResponseEntity<?> getReplies(
+            @PathVariable("commentId") Long commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CommentPage page = commentThreadService.getReplies(commentId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -194,136 +247,87 @@ public class PostController {
     }
 
     @GetMapping("/feed")
-    public ResponseEntity<List<Post>> getFeedPosts(@RequestParam String username) {
+    public ResponseEntity<?> getFeedPosts(
+            @RequestParam String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String mode,
+            WebRequest webRequest) {
         try {
-            List<Post> userPosts = postRepository.findByUsernameOrderByCreatedDateDesc(username);
-            
-            List<String> connections = findConnectionsByUsername(username);
-            
-            List<Post> connectionPosts = connections.isEmpty() ? 
-                new ArrayList<>() : 
-                postRepository.findByUsernameInOrderByCreatedDateDesc(connections);
+            if (mode != null && !mode.equals("latest") && !mode.equals("ranked")) {
+                throw new IllegalArgumentException("Unknown feed mode: " + mode);
+            }
             
-            List<Post> allPosts = new ArrayList<>();
-            allPosts.addAll(userPosts);
-            allPosts.addAll(connectionPosts);
+            boolean ranked = "ranked".equals(mode);
+            String etag = feedVersionService.feedETag(username) + (ranked ? "-ranked" : "");
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             
-            allPosts.sort(Comparator.comparing(Post::getCreatedDate).reversed());
+            if (ranked) {
+                return ResponseEntity.ok().eTag(etag).body(feedService.getRankedPage(username, cursor, limit));
+            }
             
-            enrichPostsWithData(allPosts);
+            if (cursor == null && limit == null) {
+                return ResponseEntity.ok().eTag(etag).body(feedService.getFeed(username));
+            }
             
-            return ResponseEntity.ok(allPosts);
+            FeedPage page = feedService.getFeedPage(username, cursor, limit);
+            return ResponseEntity.ok().eTag(etag).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    
-    private List<String> findConnectionsByUsername(String username) {
-        List<String> connections = new ArrayList<>();
-        
-        connectionRepository.findAllConnectionsForUser(username).forEach(connection -> {
-            if (connection.getFromUsername().equals(username)) {
-                connections.add(connection.getToUsername());
-            } else {
-                connections.add(connection.getFromUsername());
-            }
-        });
+
+    // The full legacy feed, written to the response as it is read instead of built up in memory.
+    @GetMapping(path = "/feed", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamFeedPosts(@RequestParam String username, WebRequest webRequest) {
+        String etag = feedVersionService.feedETag(username);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         
-        return connections;
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(feedService.streamFeed(username));
     }
-    
-    private void enrichPostsWithData(List<Post> posts) {
-        for (Post post : posts) {
-            int likeCount = postService.getPostLikeCount(post.getId());
-            post.setLikeCount(likeCount);
-            Users author = userRepository.findByUsername(post.getUsername());
-            if (author != null) {
-                post.setAuthorUsername(post.getUsername()); 
-                post.setAuthorName(author.getFirstName() + " " + author.getLastName());
-                post.setAuthorProfilePhoto(author.getProfilePhoto());
-                post.setAuthorMajor(author.getMajor());
-            }
-            
-            List<Comment> comments = postService.getCommentsByPostId(post.getId());
-            post.setComments(formatComments(comments));
+
+    @GetMapping("/by-hashtag/{tag}")
+    public ResponseEntity<?> getPostsByHashtag(
+            @PathVariable("tag") String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            FeedPage page = feedService.getHashtagPage(tag, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    
-    private List<Map<String, Object>> formatComments(List<Comment> comments) {
-        List<Map<String, Object>> formattedComments = new ArrayList<>();
-        
-        Map<Long, List<Comment>> repliesByParentId = new HashMap<>();
-        List<Comment> topLevelComments = new ArrayList<>();
-        
-        for (Comment comment : comments) {
-            if (comment.getParentId() == null) {
-                topLevelComments.add(comment);
-            } else {
-                repliesByParentId
-                    .computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                    .add(comment);
-            }
-        }
-        
-        for (Comment comment : topLevelComments) {
-            Map<String, Object> formattedComment = new HashMap<>();
-            formattedComment.put("id", comment.getId());
-            formattedComment.put("text", comment.getText());
-            formattedComment.put("date", comment.getCreatedDate());
-            
-            int likeCount = postService.getCommentLikeCount(comment.getId());
-            formattedComment.put("likes", likeCount);
-            
-            Users author = userRepository.findByUsername(comment.getUsername());
-            Map<String, Object> authorInfo = new HashMap<>();
-            if (author != null) {
-                authorInfo.put("username", author.getUsername());
-                authorInfo.put("name", author.getFirstName() + " " + author.getLastName());
-                authorInfo.put("profilePhoto", author.getProfilePhoto());
-            } else {
-                authorInfo.put("username", comment.getUsername());
-                authorInfo.put("name", "Unknown User");
-                authorInfo.put("profilePhoto", null);
-            }
-            formattedComment.put("author", authorInfo);
-            
-            List<Comment> replies = repliesByParentId.get(comment.getId());
-            if (replies != null && !replies.isEmpty()) {
-                List<Map<String, Object>> formattedReplies = new ArrayList<>();
-                
-                for (Comment reply : replies) {
-                    Map<String, Object> formattedReply = new HashMap<>();
-                    formattedReply.put("id", reply.getId());
-                    formattedReply.put("text", reply.getText());
-                    formattedReply.put("date", reply.getCreatedDate());
-                    formattedReply.put("parentId", reply.getParentId());
-                    
-                    int replyLikeCount = postService.getCommentLikeCount(reply.getId());
-                    formattedReply.put("likes", replyLikeCount);
-                    
-                    Users replyAuthor = userRepository.findByUsername(reply.getUsername());
-                    Map<String, Object> replyAuthorInfo = new HashMap<>();
-                    if (replyAuthor != null) {
-                        replyAuthorInfo.put("username", replyAuthor.getUsername());
-                        replyAuthorInfo.put("name", replyAuthor.getFirstName() + " " + replyAuthor.getLastName());
-                        replyAuthorInfo.put("profilePhoto", replyAuthor.getProfilePhoto());
-                    } else {
-                        replyAuthorInfo.put("username", reply.getUsername());
-                        replyAuthorInfo.put("name", "Unknown User");
-                        replyAuthorInfo.put("profilePhoto", null);
-                    }
-                    formattedReply.put("author", replyAuthorInfo);
-                    
-                    formattedReplies.add(formattedReply);
-                }
-                
-                formattedComment.put("replies", formattedReplies);
-            }
-            
-            formattedComments.add(formattedComment);
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            FeedPage page = feedService.getSearchPage(query, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-        
-        return formattedComments;
+    }
+
+    @GetMapping(path = "/feed/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFeed(@RequestParam String username) {
+        return feedEventDispatcher.subscribe(username);
     }
 }
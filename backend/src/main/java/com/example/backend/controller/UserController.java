@@ -11,7 +11,10 @@ import org.springframework.web.multipart.MultipartFile;
 import com.example.backend.dto.UserRegistrationDto;
 import com.example.backend.service.EmailService;
 import com.example.backend.service.OTPService;
-import com.example.backend.service.UserService;
+import com.example.backend.service.AccountDeletionService;
+import com.example.backend.service.FeedVersionService;
+import com.example.backend.service.UserSummaryCache;
+import com.example.backend.dto.AccountDeletionStatus;
 
 import jakarta.mail.MessagingException;
 
@@ -37,7 +40,13 @@ public class UserController {
     private EmailService emailService;
 
     @Autowired
-    private UserService userService;
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private FeedVersionService feedVersionService;
+
+    @Autowired
+    private UserSummaryCache userSummaryCache;
 
     @PostMapping("/register")
     String reg(@RequestBody Users user) {
@@ -83,6 +92,9 @@ public class UserController {
         if (existingUser != null) {
             updatedUser.setId(existingUser.getId()); 
             Users savedUser = ur.save(updatedUser);
+            userSummaryCache.invalidate(username);
+            userSummaryCache.invalidate(savedUser.getUsername());
+            feedVersionService.onAuthorActivity(username);
             return ResponseEntity.ok(savedUser);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -244,13 +256,25 @@ public class UserController {
     @DeleteMapping("/profile/delete")
     public ResponseEntity<?> deleteUserAccount(@RequestParam String username) {
         try {
-            userService.deleteUserAccount(username); // Make sure this is correctly wired
-            return ResponseEntity.ok().body(Map.of("message", "Account deleted successfully"));
+            AccountDeletionStatus status = accountDeletionService.requestDeletion(username);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to delete account: " + e.getMessage()));
         }
     }
+
+    @GetMapping("/profile/delete/status")
+    public ResponseEntity<?> getAccountDeletionStatus(@RequestParam String username) {
+        AccountDeletionStatus status = accountDeletionService.getStatus(username);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "No account deletion requested for username: " + username));
+        }
+        return ResponseEntity.ok(status);
+    }
     @PostMapping("/api/users/verify-password")
 public ResponseEntity<Map<String, String>> verifyPassword(@RequestBody Map<String, String> credentials) {
     Map<String, String> response = new HashMap<>();
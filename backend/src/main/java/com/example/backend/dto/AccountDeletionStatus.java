@@ -0,0 +1,73 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class AccountDeletionStatus {
+    
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+    
+    // Written by the deletion worker and read by status requests, hence volatile.
+    private final String username;
+    private volatile State state = State.PENDING;
+    private volatile int deletedPosts;
+    private volatile int deletedMessages;
+    private volatile String error;
+    private final LocalDateTime requestedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    
+    public AccountDeletionStatus(String username) {
+        this.username = username;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public int getDeletedPosts() {
+        return deletedPosts;
+    }
+    
+    public void setDeletedPosts(int deletedPosts) {
+        this.deletedPosts = deletedPosts;
+    }
+    
+    public int getDeletedMessages() {
+        return deletedMessages;
+    }
+    
+    public void setDeletedMessages(int deletedMessages) {
+        this.deletedMessages = deletedMessages;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.dto;
+
+public record AuthorView(String username, String name, String profilePhoto) {
+
+    public static AuthorView of(UserSummary user) {
+        return new AuthorView(user.username(), user.name(), user.profilePhoto());
+    }
+}
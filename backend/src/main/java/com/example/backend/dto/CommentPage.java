@@ -0,0 +1,31 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class CommentPage {
+    private List<CommentView> comments;
+    private String nextCursor;
+    
+    public CommentPage() {}
+    
+    public CommentPage(List<CommentView> comments, String nextCursor) {
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<CommentView> getComments() {
+        return comments;
+    }
+    
+    public void setComments(List<CommentView> comments) {
+        this.comments = comments;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
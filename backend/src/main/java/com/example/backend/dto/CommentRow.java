@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// A comment joined with its author's profile, read with a constructor projection instead of
+// loading Comment and Users entities. The author columns are null when the user no longer exists.
+public record CommentRow(
+        Long id,
+        Long postId,
+        Long parentId,
+        String text,
+        LocalDateTime createdDate,
+        int likeCount,
+        String username,
+        String authorUsername,
+        String firstName,
+        String lastName,
+        String profilePhoto) {
+}
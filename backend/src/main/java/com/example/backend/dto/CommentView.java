@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// parentId is only set on replies; replyCount and replies are only set where the endpoint
+// embeds them, and are left out of the JSON otherwise.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CommentView(
+        Long id,
+        String text,
+        LocalDateTime date,
+        int likes,
+        Long parentId,
+        AuthorView author,
+        Integer replyCount,
+        List<CommentView> replies) {
+}
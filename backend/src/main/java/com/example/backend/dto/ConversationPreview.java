@@ -0,0 +1,13 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record ConversationPreview(String id, AuthorView user, LastMessage lastMessage, int unreadCount) {
+
+    public record LastMessage(String text, String timestamp, boolean unread) {
+
+        public LastMessage(String text, LocalDateTime timestamp, boolean unread) {
+            this(text, timestamp.toString(), unread);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Post;
+
+import java.util.List;
+
+public class FeedPage {
+    private List<Post> posts;
+    private String nextCursor;
+    
+    public FeedPage() {}
+    
+    public FeedPage(List<Post> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Post> getPosts() {
+        return posts;
+    }
+    
+    public void setPosts(List<Post> posts) {
+        this.posts = posts;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// One inbox entry: the latest message exchanged with a partner, the number of messages from that
+// partner the owner has not read, and the partner's profile, all read in a single projection.
+public record InboxRow(
+        String partner,
+        Long messageId,
+        String text,
+        LocalDateTime timestamp,
+        boolean lastUnread,
+        int unreadCount,
+        String firstName,
+        String lastName,
+        String profilePhoto) {
+}
@@ -0,0 +1,35 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class LikeCheckRequest {
+    private String username;
+    private String type;
+    private List<Long> ids;
+    
+    public LikeCheckRequest() {}
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
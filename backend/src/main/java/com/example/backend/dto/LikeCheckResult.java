@@ -0,0 +1,6 @@
+package com.example.backend.dto;
+
+// Bit i of liked (little-endian within each byte, base64 in JSON) is set when the user likes the
+// i-th id of the request; size is the number of ids checked.
+public record LikeCheckResult(int size, byte[] liked) {
+}
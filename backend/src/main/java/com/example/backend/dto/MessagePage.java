@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Message;
+
+import java.util.List;
+
+// nextBefore is the id to pass as before for the next older page, or null at the start of the history.
+public record MessagePage(List<Message> messages, Long nextBefore) {
+}
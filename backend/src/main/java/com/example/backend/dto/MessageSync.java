@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Message;
+
+import java.util.List;
+
+// lastId is the sinceId to send on the next sync call.
+public record MessageSync(List<Message> messages, Long lastId) {
+}
@@ -0,0 +1,29 @@
+package com.example.backend.dto;
+
+public class TrendingHashtag {
+    private String name;
+    private int count;
+    
+    public TrendingHashtag() {}
+    
+    public TrendingHashtag(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+// The handful of profile fields that other payloads embed about a user.
+public record UserSummary(String username, String firstName, String lastName, String profilePhoto, String major) {
+
+    public String name() {
+        return firstName + " " + lastName;
+    }
+}
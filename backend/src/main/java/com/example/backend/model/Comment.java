@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comment_post_parent_created", columnList = "post_id, parent_id, created_date"),
+    @Index(name = "idx_comment_parent_created", columnList = "parent_id, created_date")
+})
 public class Comment {
     
     @Id
@@ -25,7 +28,7 @@ public class Comment {
     @Column(name = "created_date")
     private LocalDateTime createdDate;
     
-    @Transient
+    @Column(name = "like_count")
     private int likeCount;
     
     public Comment() {}
@@ -6,10 +6,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "connections")
+@Table(name = "connections", indexes = {
+    @Index(name = "idx_connection_from_status", columnList = "fromUsername, status"),
+    @Index(name = "idx_connection_to_status", columnList = "toUsername, status")
+})
 public class Connection {
     
     @Id
@@ -0,0 +1,103 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per (owner, partner) pair holding what the owner's inbox shows for that conversation,
+// kept up to date as messages are sent and read (see ConversationService).
+@Entity
+@Table(name = "conversation_summary", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"owner", "partner"})
+}, indexes = {
+    @Index(name = "idx_conversation_summary_owner_last", columnList = "owner, last_timestamp, last_message_id")
+})
+public class ConversationSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private String owner;
+    
+    private String partner;
+    
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    
+    @Column(name = "last_sender")
+    private String lastSender;
+    
+    private String snippet;
+    
+    @Column(name = "last_timestamp")
+    private LocalDateTime lastTimestamp;
+    
+    @Column(name = "unread_count")
+    private int unreadCount;
+    
+    public ConversationSummary() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public String getPartner() {
+        return partner;
+    }
+    
+    public void setPartner(String partner) {
+        this.partner = partner;
+    }
+    
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+    
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+    
+    public String getLastSender() {
+        return lastSender;
+    }
+    
+    public void setLastSender(String lastSender) {
+        this.lastSender = lastSender;
+    }
+    
+    public String getSnippet() {
+        return snippet;
+    }
+    
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+    
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+    
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+    
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+    
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "hashtag_post_index", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"hashtag_id", "post_id"})
+}, indexes = {
+    @Index(name = "idx_hashtag_post_created", columnList = "hashtag_id, created_date, post_id"),
+    @Index(name = "idx_hashtag_post_post", columnList = "post_id")
+})
+public class HashtagPostEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "hashtag_id")
+    private Long hashtagId;
+    
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+    
+    public HashtagPostEntry() {}
+    
+    public HashtagPostEntry(Long hashtagId, Post post) {
+        this.hashtagId = hashtagId;
+        this.postId = post.getId();
+        this.createdDate = post.getCreatedDate();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getHashtagId() {
+        return hashtagId;
+    }
+    
+    public void setHashtagId(Long hashtagId) {
+        this.hashtagId = hashtagId;
+    }
+    
+    public Long getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+    
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+}
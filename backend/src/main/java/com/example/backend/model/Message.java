@@ -4,9 +4,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_message_from_timestamp", columnList = "fromUsername, timestamp"),
+    @Index(name = "idx_message_to_timestamp", columnList = "toUsername, timestamp"),
+    @Index(name = "idx_message_to_from_id", columnList = "toUsername, fromUsername, id"),
+    @Index(name = "idx_message_conversation_id", columnList = "conversationKey, id")
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +27,14 @@ public class Message {
     private String toUsername;
     private String text;
     private LocalDateTime timestamp;
+    
+    // Both usernames in sorted order, so the two directions of a conversation share one key.
+    @JsonIgnore
+    private String conversationKey;
+    
+    // Superseded by ReadWatermark and no longer maintained; it stays mapped because existing
+    // schemas declare the column NOT NULL, and is only read once to seed the watermarks.
+    @JsonIgnore
     private boolean isRead;
     
     private String attachmentUrl;
@@ -25,6 +44,17 @@ public class Message {
     public Message() {
     }
     
+    public static String conversationKey(String username1, String username2) {
+        return username1.compareTo(username2) <= 0 ?
+            username1 + "|" + username2 :
+            username2 + "|" + username1;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        this.conversationKey = conversationKey(fromUsername, toUsername);
+    }
+    
     public Long getId() {
         return id;
     }
@@ -57,6 +87,15 @@ public class Message {
         this.text = text;
     }
     
+    @JsonIgnore
+    public String getConversationKey() {
+        return conversationKey;
+    }
+    
+    public void setConversationKey(String conversationKey) {
+        this.conversationKey = conversationKey;
+    }
+    
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
@@ -65,6 +104,7 @@ public class Message {
         this.timestamp = timestamp;
     }
     
+    @JsonIgnore
     public boolean isRead() {
         return isRead;
     }
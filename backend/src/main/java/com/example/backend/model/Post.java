@@ -4,20 +4,30 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.persistence.ManyToMany;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ElementCollection;
+
+import com.example.backend.dto.CommentView;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_post_username_created", columnList = "username, createdDate, id"),
+    @Index(name = "idx_post_created", columnList = "createdDate, id"),
+    @Index(name = "idx_post_rank", columnList = "rankScore"),
+    @Index(name = "idx_post_username_rank", columnList = "username, rankScore")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,13 +37,19 @@ public class Post {
     private String username;
     private LocalDateTime createdDate;
     
-    @Transient 
     private int likeCount;
     
+    private int commentCount;
+    
+    @JsonIgnore
+    private Double rankScore;
+    
     @Transient
-    private List<Map<String, Object>> comments;
+    private List<CommentView> comments;
 
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    // Not cascaded: HashtagService creates every tag before it is linked, and links cached tags
+    // by id without loading them.
+    @ManyToMany
     @JoinTable(
         name = "post_hashtags",
         joinColumns = @JoinColumn(name = "post_id"),
@@ -102,11 +118,27 @@ public class Post {
         this.likeCount = likeCount;
     }
 
-    public List<Map<String, Object>> getComments() {
+    public int getCommentCount() {
+        return commentCount;
+    }
+    
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public Double getRankScore() {
+        return rankScore;
+    }
+    
+    public void setRankScore(Double rankScore) {
+        this.rankScore = rankScore;
+    }
+
+    public List<CommentView> getComments() {
         return comments;
     }
     
-    public void setComments(List<Map<String, Object>> comments) {
+    public void setComments(List<CommentView> comments) {
         this.comments = comments;
     }
 
@@ -192,6 +224,7 @@ public class Post {
                 ", username='" + username + '\'' +
                 ", createdDate=" + createdDate +
                 ", likeCount=" + likeCount +
+                ", commentCount=" + commentCount +
                 '}';
     }
 }
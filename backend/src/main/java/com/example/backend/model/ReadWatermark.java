@@ -0,0 +1,63 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+// The id of the newest message from partner that reader has read; every message from partner
+// to reader at or below it counts as read and every one above it as unread.
+@Entity
+@Table(name = "message_read_watermark", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"reader", "partner"})
+})
+public class ReadWatermark {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private String reader;
+    
+    private String partner;
+    
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+    
+    public ReadWatermark() {}
+    
+    public ReadWatermark(String reader, String partner, Long lastReadMessageId) {
+        this.reader = reader;
+        this.partner = partner;
+        this.lastReadMessageId = lastReadMessageId;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getReader() {
+        return reader;
+    }
+    
+    public void setReader(String reader) {
+        this.reader = reader;
+    }
+    
+    public String getPartner() {
+        return partner;
+    }
+    
+    public void setPartner(String partner) {
+        this.partner = partner;
+    }
+    
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+    
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "timeline_entries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"owner_username", "post_id"})
+}, indexes = {
+    @Index(name = "idx_timeline_owner_created", columnList = "owner_username, created_date, post_id"),
+    @Index(name = "idx_timeline_post", columnList = "post_id")
+})
+public class TimelineEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "owner_username")
+    private String ownerUsername;
+    
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(name = "author_username")
+    private String authorUsername;
+    
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+    
+    public TimelineEntry() {}
+    
+    public TimelineEntry(String ownerUsername, Post post) {
+        this.ownerUsername = ownerUsername;
+        this.postId = post.getId();
+        this.authorUsername = post.getUsername();
+        this.createdDate = post.getCreatedDate();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+    
+    public void setOwnerUsername(String ownerUsername) {
+        this.ownerUsername = ownerUsername;
+    }
+    
+    public Long getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+    
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+    
+    public void setAuthorUsername(String authorUsername) {
+        this.authorUsername = authorUsername;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+    
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+// How strongly viewer engages with author, stored as a log-time score (see FeedRankingService).
+@Entity
+@Table(name = "user_affinity", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"viewer", "author"})
+})
+public class UserAffinity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private String viewer;
+    
+    private String author;
+    
+    private double score;
+    
+    public UserAffinity() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getViewer() {
+        return viewer;
+    }
+    
+    public void setViewer(String viewer) {
+        this.viewer = viewer;
+    }
+    
+    public String getAuthor() {
+        return author;
+    }
+    
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -2,10 +2,12 @@ package com.example.backend.repository;
 
 import com.example.backend.model.CommentLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,4 +21,14 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
     
     @Transactional
     void deleteByCommentId(Long commentId);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CommentLike cl WHERE cl.commentId = :commentId AND cl.username = :username")
+    int deleteLike(Long commentId, String username);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CommentLike cl WHERE cl.commentId IN (SELECT c.id FROM Comment c WHERE c.postId IN :postIds)")
+    int deleteByPostIds(Collection<Long> postIds);
 }
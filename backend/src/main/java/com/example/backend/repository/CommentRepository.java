@@ -1,9 +1,15 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.CommentRow;
 import com.example.backend.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,6 +18,93 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdOrderByCreatedDateAsc(Long postId);
     List<Comment> findByParentIdOrderByCreatedDateAsc(Long parentId);
     
+    @Query("SELECT new com.example.backend.dto.CommentRow(c.id, c.postId, c.parentId, c.text, c.createdDate, c.likeCount, " +
+           "c.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM Comment c LEFT JOIN Users u ON u.username = c.username " +
+           "WHERE c.postId IN :postIds ORDER BY c.createdDate ASC, c.id ASC")
+    List<CommentRow> findRowsByPostIds(Collection<Long> postIds);
+    
+    @Query("SELECT new com.example.backend.dto.CommentRow(r.id, r.postId, r.parentId, r.text, r.createdDate, r.likeCount, " +
+           "r.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM (SELECT c.id AS id, c.postId AS postId, c.parentId AS parentId, c.text AS text, " +
+           "c.createdDate AS createdDate, c.likeCount AS likeCount, c.username AS username, " +
+           "ROW_NUMBER() OVER (PARTITION BY c.postId ORDER BY c.createdDate, c.id) AS previewRank " +
+           "FROM Comment c WHERE c.postId IN :postIds AND c.parentId IS NULL) r " +
+           "LEFT JOIN Users u ON u.username = r.username " +
+           "WHERE r.previewRank <= :previewSize ORDER BY r.postId, r.previewRank")
+    List<CommentRow> findTopLevelPreview(Collection<Long> postIds, int previewSize);
+    
+    @Query("SELECT c.parentId, COUNT(c) FROM Comment c WHERE c.parentId IN :parentIds GROUP BY c.parentId")
+    List<Object[]> countRepliesByParentIds(Collection<Long> parentIds);
+    
+    @Query("SELECT new com.example.backend.dto.CommentRow(c.id, c.postId, c.parentId, c.text, c.createdDate, c.likeCount, " +
+           "c.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM Comment c LEFT JOIN Users u ON u.username = c.username " +
+           "WHERE c.postId = :postId AND c.parentId IS NULL " +
+           "ORDER BY c.createdDate ASC, c.id ASC")
+    List<CommentRow> findTopLevelPage(Long postId, Pageable pageable);
+    
+    @Query("SELECT new com.example.backend.dto.CommentRow(c.id, c.postId, c.parentId, c.text, c.createdDate, c.likeCount, " +
+           "c.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM Comment c LEFT JOIN Users u ON u.username = c.username " +
+           "WHERE c.postId = :postId AND c.parentId IS NULL " +
+           "AND (c.createdDate > :createdDate OR (c.createdDate = :createdDate AND c.id > :id)) " +
+           "ORDER BY c.createdDate ASC, c.id ASC")
+    List<CommentRow> findTopLevelPageAfter(Long postId, LocalDateTime createdDate, Long id, Pageable pageable);
+    
+    @Query("SELECT new com.example.backend.dto.CommentRow(c.id, c.postId, c.parentId, c.text, c.createdDate, c.likeCount, " +
+           "c.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM Comment c LEFT JOIN Users u ON u.username = c.username " +
+           "WHERE c.parentId = :parentId " +
+           "ORDER BY c.createdDate ASC, c.id ASC")
+    List<CommentRow> findReplyPage(Long parentId, Pageable pageable);
+    
+    @Query("SELECT new com.example.backend.dto.CommentRow(c.id, c.postId, c.parentId, c.text, c.createdDate, c.likeCount, " +
+           "c.username, u.username, u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM Comment c LEFT JOIN Users u ON u.username = c.username " +
+           "WHERE c.parentId = :parentId " +
+           "AND (c.createdDate > :createdDate OR (c.createdDate = :createdDate AND c.id > :id)) " +
+           "ORDER BY c.createdDate ASC, c.id ASC")
+    List<CommentRow> findReplyPageAfter(Long parentId, LocalDateTime createdDate, Long id, Pageable pageable);
+    
     @Transactional
     void deleteByPostId(Long postId);
+    
+    @Query("SELECT c.likeCount FROM Comment c WHERE c.id = :commentId")
+    Integer findLikeCountById(Long commentId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + :delta WHERE c.id = :commentId")
+    int adjustLikeCount(Long commentId, int delta);
+    
+    @Query("SELECT MAX(c.id) FROM Comment c")
+    Long findMaxId();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.likeCount = (SELECT COUNT(cl) FROM CommentLike cl WHERE cl.commentId = c.id) " +
+           "WHERE c.id BETWEEN :fromId AND :toId " +
+           "AND c.likeCount <> (SELECT COUNT(cl) FROM CommentLike cl WHERE cl.commentId = c.id)")
+    int reconcileLikeCounts(Long fromId, Long toId);
+    
+    @Query("SELECT c.postId, c.text FROM Comment c WHERE c.postId IN :postIds")
+    List<Object[]> findTextsByPostIds(Collection<Long> postIds);
+    
+    @Query("SELECT DISTINCT c.postId FROM Comment c WHERE c.createdDate >= :since")
+    List<Long> findPostIdsCommentedSince(LocalDateTime since);
+    
+    @Query("SELECT c.id FROM Comment c WHERE c.postId IN :postIds")
+    List<Long> findIdsByPostIds(Collection<Long> postIds);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.postId IN :postIds")
+    int deleteByPostIds(Collection<Long> postIds);
+    
+    @Query("SELECT c.postId FROM Comment c WHERE c.id = :commentId")
+    Long findPostIdById(Long commentId);
+    
+    @Query("SELECT DISTINCT p.username FROM Comment c, Post p WHERE p.id = c.postId AND c.id IN :commentIds")
+    List<String> findPostAuthorsByIds(Collection<Long> commentIds);
 }
@@ -1,5 +1,6 @@
 package com.example.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,22 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
            "(c.fromUsername = ?1 OR c.toUsername = ?1) AND c.status = 'connected'")
     List<Connection> findAllConnectionsForUser(String username);
 
+    @Query("SELECT CASE WHEN c.fromUsername = ?1 THEN c.toUsername ELSE c.fromUsername END " +
+           "FROM Connection c WHERE (c.fromUsername = ?1 OR c.toUsername = ?1) AND c.status = 'connected'")
+    List<String> findConnectedUsernames(String username);
+
+    @Query("SELECT COUNT(c) FROM Connection c WHERE " +
+           "(c.fromUsername = ?1 OR c.toUsername = ?1) AND c.status = 'connected'")
+    long countConnectionsForUser(String username);
+
+    @Query("SELECT c.fromUsername, COUNT(c) FROM Connection c " +
+           "WHERE c.fromUsername IN ?1 AND c.status = 'connected' GROUP BY c.fromUsername")
+    List<Object[]> countOutgoingConnections(Collection<String> usernames);
+
+    @Query("SELECT c.toUsername, COUNT(c) FROM Connection c " +
+           "WHERE c.toUsername IN ?1 AND c.status = 'connected' GROUP BY c.toUsername")
+    List<Object[]> countIncomingConnections(Collection<String> usernames);
+
     @Query("SELECT COUNT(c) > 0 FROM Connection c " +
            "WHERE ((c.fromUsername = :user1 AND c.toUsername = :user2) " +
            "OR (c.fromUsername = :user2 AND c.toUsername = :user1)) " +
@@ -37,4 +54,9 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
     @Modifying
     @Transactional
     void deleteByFromUsernameOrToUsername(String fromUsername, String toUsername);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Connection c WHERE c.fromUsername = :username OR c.toUsername = :username")
+    int deleteAllForUser(String username);
 }
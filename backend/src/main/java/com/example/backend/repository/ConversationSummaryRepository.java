@@ -0,0 +1,52 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.InboxRow;
+import com.example.backend.model.ConversationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+    
+    String INBOX = "SELECT new com.example.backend.dto.InboxRow(" +
+           "s.partner, s.lastMessageId, s.snippet, s.lastTimestamp, " +
+           "CASE WHEN s.lastSender = s.partner AND s.unreadCount > 0 THEN true ELSE false END, s.unreadCount, " +
+           "u.firstName, u.lastName, u.profilePhoto) " +
+           "FROM ConversationSummary s JOIN Users u ON u.username = s.partner " +
+           "WHERE s.owner = :username ";
+    
+    @Query(INBOX + "ORDER BY s.lastTimestamp DESC, s.lastMessageId DESC")
+    List<InboxRow> findInbox(String username, Pageable pageable);
+    
+    @Query(INBOX + "AND (s.lastTimestamp < :timestamp OR (s.lastTimestamp = :timestamp AND s.lastMessageId < :id)) " +
+           "ORDER BY s.lastTimestamp DESC, s.lastMessageId DESC")
+    List<InboxRow> findInboxBefore(String username, LocalDateTime timestamp, Long id, Pageable pageable);
+    
+    // Locks the row so a concurrent send waits until the read that changes it has committed.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ConversationSummary s WHERE s.owner = :owner AND s.partner = :partner")
+    ConversationSummary findForUpdate(String owner, String partner);
+    
+    @Query("SELECT COALESCE(SUM(s.unreadCount), 0) FROM ConversationSummary s WHERE s.owner = :owner")
+    long sumUnread(String owner);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = :unreadCount WHERE s.owner = :owner AND s.partner = :partner")
+    int setUnread(String owner, String partner, int unreadCount);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConversationSummary s WHERE s.owner = :username OR s.partner = :username")
+    int deleteAllForUser(String username);
+}
@@ -2,14 +2,24 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Gig;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface GigRepository extends JpaRepository<Gig, Long> {
     List<Gig> findByUsername(String username);
     List<Gig> findByCategory(String category);
     List<Gig> findByOrderByCreatedAtDesc();
+    
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Gig> streamByOrderByCreatedAtDesc();
+    
     List<Gig> findByTitleContainingOrDescriptionContainingOrderByCreatedAtDesc(String titleTerm, String descriptionTerm);
 }
\ No newline at end of file
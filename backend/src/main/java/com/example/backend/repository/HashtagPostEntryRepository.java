@@ -0,0 +1,38 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.HashtagPostEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HashtagPostEntryRepository extends JpaRepository<HashtagPostEntry, Long> {
+    
+    @Query("SELECT e.postId FROM HashtagPostEntry e WHERE e.hashtagId = :hashtagId " +
+           "ORDER BY e.createdDate DESC, e.postId DESC")
+    List<Long> findPostIds(Long hashtagId, Pageable pageable);
+    
+    @Query("SELECT e.postId FROM HashtagPostEntry e WHERE e.hashtagId = :hashtagId " +
+           "AND (e.createdDate < :createdDate OR (e.createdDate = :createdDate AND e.postId < :postId)) " +
+           "ORDER BY e.createdDate DESC, e.postId DESC")
+    List<Long> findPostIdsBefore(Long hashtagId, LocalDateTime createdDate, Long postId, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO hashtag_post_index (hashtag_id, post_id, created_date) " +
+                   "SELECT ph.hashtag_id, p.id, p.created_date FROM post_hashtags ph " +
+                   "JOIN post p ON p.id = ph.post_id", nativeQuery = true)
+    int backfill();
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM HashtagPostEntry e WHERE e.postId IN :postIds")
+    int deleteByPostIds(Collection<Long> postIds);
+}
@@ -2,9 +2,21 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Hashtag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
     Hashtag findByName(String name);
+    List<Hashtag> findByNameIn(Collection<String> names);
+    
+    @Query("SELECT h.name, p.createdDate FROM Post p JOIN p.hashtags h WHERE p.createdDate >= :since")
+    List<Object[]> findHashtagUsageSince(LocalDateTime since);
+    
+    @Query("SELECT p.id, h.name FROM Post p JOIN p.hashtags h WHERE p.id IN :postIds")
+    List<Object[]> findNamesByPostIds(Collection<Long> postIds);
 }
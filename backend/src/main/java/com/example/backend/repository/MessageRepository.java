@@ -1,42 +1,107 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    @Query("SELECT m FROM Message m WHERE " +
-           "(m.fromUsername = ?1 AND m.toUsername = ?2) OR " +
-           "(m.fromUsername = ?2 AND m.toUsername = ?1) " +
-           "ORDER BY m.timestamp ASC")
-    List<Message> findConversationMessages(String username1, String username2);
-    
-    @Query("SELECT DISTINCT " +
-           "CASE WHEN m.fromUsername = ?1 THEN m.toUsername ELSE m.fromUsername END " +
-           "FROM Message m " +
-           "WHERE m.fromUsername = ?1 OR m.toUsername = ?1")
-    List<String> findConversationUsernames(String username);
-    
-    @Query("SELECT m FROM Message m WHERE " +
-           "((m.fromUsername = ?1 AND m.toUsername = ?2) OR " +
-           "(m.fromUsername = ?2 AND m.toUsername = ?1)) " +
-           "ORDER BY m.timestamp DESC")
-    List<Message> findLatestMessagesBetween(String username1, String username2);
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :conversationKey ORDER BY m.id ASC")
+    List<Message> findConversationMessages(String conversationKey);
+    
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :conversationKey ORDER BY m.id ASC")
+    Stream<Message> streamConversationMessages(String conversationKey);
+    
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :conversationKey ORDER BY m.id DESC")
+    List<Message> findLatestInConversation(String conversationKey, Pageable pageable);
+    
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :conversationKey AND m.id < :beforeId ORDER BY m.id DESC")
+    List<Message> findInConversationBefore(String conversationKey, Long beforeId, Pageable pageable);
+    
+    @Query("SELECT m.id FROM Message m WHERE m.conversationKey IS NULL ORDER BY m.id")
+    List<Long> findIdsWithoutConversationKey(Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Message m SET m.conversationKey = " +
+           "CASE WHEN m.fromUsername <= m.toUsername " +
+           "THEN CONCAT(m.fromUsername, '|', m.toUsername) " +
+           "ELSE CONCAT(m.toUsername, '|', m.fromUsername) END " +
+           "WHERE m.id IN :ids")
+    int assignConversationKeys(Collection<Long> ids);
     
-    List<Message> findByToUsernameAndIsReadFalse(String toUsername);
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.fromUsername = :fromUsername AND m.toUsername = :toUsername")
+    Long findLatestIdBetween(String fromUsername, String toUsername);
     
-    @Query("SELECT m FROM Message m WHERE " +
-           "m.toUsername = ?1 AND m.isRead = false " +
+    @Query("SELECT COUNT(m) FROM Message m " +
+           "WHERE m.fromUsername = :fromUsername AND m.toUsername = :toUsername AND m.id > :afterId")
+    long countAfter(String fromUsername, String toUsername, Long afterId);
+    
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.fromUsername = :username OR m.toUsername = :username")
+    Long findLatestIdForParticipant(String username);
+    
+    @Query("SELECT m FROM Message m WHERE (m.fromUsername = :username OR m.toUsername = :username) " +
+           "AND m.id > :sinceId ORDER BY m.id ASC")
+    List<Message> findForParticipantAfter(String username, Long sinceId, Pageable pageable);
+    
+    // The latest message the user exchanged with each partner, as (partner, id, text, fromUsername,
+    // timestamp, unreadCount), computed from the messages themselves. Used to build the
+    // conversation summaries of users whose messages predate them.
+    @Query("SELECT x.partner, x.id, x.text, x.fromUsername, x.timestamp, x.unreadCount " +
+           "FROM (SELECT " +
+           "CASE WHEN m.fromUsername = :username THEN m.toUsername ELSE m.fromUsername END AS partner, " +
+           "m.id AS id, m.text AS text, m.fromUsername AS fromUsername, m.timestamp AS timestamp, " +
+           "ROW_NUMBER() OVER (" +
+           "PARTITION BY CASE WHEN m.fromUsername = :username THEN m.toUsername ELSE m.fromUsername END " +
+           "ORDER BY m.timestamp DESC, m.id DESC) AS rn, " +
+           "SUM(CASE WHEN m.toUsername = :username AND m.id > COALESCE(w.lastReadMessageId, 0) THEN 1 ELSE 0 END) OVER (" +
+           "PARTITION BY CASE WHEN m.fromUsername = :username THEN m.toUsername ELSE m.fromUsername END) AS unreadCount " +
+           "FROM Message m LEFT JOIN ReadWatermark w ON w.reader = :username AND w.partner = m.fromUsername " +
+           "WHERE m.fromUsername = :username OR m.toUsername = :username) x " +
+           "WHERE x.rn = 1")
+    List<Object[]> findConversationHeads(String username);
+    
+    @Query("SELECT u.username FROM Users u WHERE u.username > :afterUsername AND EXISTS (" +
+           "SELECT 1 FROM Message m WHERE m.fromUsername = u.username OR m.toUsername = u.username) " +
+           "ORDER BY u.username")
+    List<String> findParticipantsAfter(String afterUsername, Pageable pageable);
+    
+    // Messages to the user above the watermark for their sender, newest first.
+    @Query("SELECT m FROM Message m LEFT JOIN ReadWatermark w " +
+           "ON w.reader = m.toUsername AND w.partner = m.fromUsername " +
+           "WHERE m.toUsername = :username AND m.id > COALESCE(w.lastReadMessageId, 0) " +
            "ORDER BY m.timestamp DESC")
-    List<Message> findRecentMessages(String username);
+    List<Message> findUnreadMessages(String username);
+    
+    // Per (reader, sender) pair: the newest message id and the oldest id still flagged unread
+    // under the old per-message read flag.
+    @Query("SELECT m.toUsername, m.fromUsername, MAX(m.id), MIN(CASE WHEN m.isRead = false THEN m.id END) " +
+           "FROM Message m GROUP BY m.toUsername, m.fromUsername")
+    List<Object[]> findReadFlagBoundaries();
     
     @Modifying
     @Transactional
     void deleteByFromUsernameOrToUsername(String fromUsername, String toUsername);
+    
+    @Query("SELECT m.id FROM Message m WHERE m.fromUsername = :username OR m.toUsername = :username ORDER BY m.id")
+    List<Long> findIdsByParticipant(String username, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Message m WHERE m.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
 }
\ No newline at end of file
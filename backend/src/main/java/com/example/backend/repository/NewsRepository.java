@@ -2,9 +2,15 @@ package com.example.backend.repository;
 
 import com.example.backend.model.News;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
@@ -13,4 +19,7 @@ public interface NewsRepository extends JpaRepository<News, Long> {
     List<News> findByTitleContainingIgnoreCaseOrSummaryContainingIgnoreCase(String title, String summary);
     
     List<News> findAllByOrderByDateDesc();
+    
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<News> streamAllByOrderByDateDesc();
 }
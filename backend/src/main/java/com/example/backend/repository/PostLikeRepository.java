@@ -1,17 +1,32 @@
 package com.example.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import com.example.backend.model.PostLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     PostLike findByPostIdAndUsername(Long postId, String username);
     
     int countByPostId(Long postId);
     
+    List<PostLike> findByPostIdInAndUsernameIn(Collection<Long> postIds, Collection<String> usernames);
+    
     @Query("SELECT pl.postId FROM PostLike pl WHERE pl.username = :username")
     List<Long> findPostIdsByUsername(String username);
 
     void deleteByPostId(Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostLike pl WHERE pl.postId = :postId AND pl.username = :username")
+    int deleteLike(Long postId, String username);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostLike pl WHERE pl.postId IN :postIds")
+    int deleteByPostIds(Collection<Long> postIds);
 }
\ No newline at end of file
@@ -1,9 +1,22 @@
 package com.example.backend.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.backend.model.Post;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -11,4 +24,110 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByUsernameInOrderByCreatedDateDesc(List<String> connections);
 
     List<Post> findByUsernameOrderByCreatedDateDesc(String username);
-}
\ No newline at end of file
+
+    List<Post> findByUsernameOrderByCreatedDateDesc(String username, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE " +
+           "(p.username = :username " +
+           "OR p.username IN (SELECT c.toUsername FROM Connection c WHERE c.fromUsername = :username AND c.status = 'connected') " +
+           "OR p.username IN (SELECT c.fromUsername FROM Connection c WHERE c.toUsername = :username AND c.status = 'connected')) " +
+           "ORDER BY p.createdDate DESC, p.id DESC")
+    List<Post> findFeedPage(String username, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Post p WHERE " +
+           "(p.username = :username " +
+           "OR p.username IN (SELECT c.toUsername FROM Connection c WHERE c.fromUsername = :username AND c.status = 'connected') " +
+           "OR p.username IN (SELECT c.fromUsername FROM Connection c WHERE c.toUsername = :username AND c.status = 'connected')) " +
+           "ORDER BY p.createdDate DESC, p.id DESC")
+    Stream<Post> streamFeed(String username);
+
+    @Query("SELECT p FROM Post p WHERE " +
+           "(p.username = :username " +
+           "OR p.username IN (SELECT c.toUsername FROM Connection c WHERE c.fromUsername = :username AND c.status = 'connected') " +
+           "OR p.username IN (SELECT c.fromUsername FROM Connection c WHERE c.toUsername = :username AND c.status = 'connected')) " +
+           "AND (p.createdDate < :createdDate OR (p.createdDate = :createdDate AND p.id < :id)) " +
+           "ORDER BY p.createdDate DESC, p.id DESC")
+    List<Post> findFeedPageBefore(String username, LocalDateTime createdDate, Long id, Pageable pageable);
+
+    @Query("SELECT p.id, p.username, p.rankScore FROM Post p WHERE " +
+           "(p.username = :username " +
+           "OR p.username IN (SELECT c.toUsername FROM Connection c WHERE c.fromUsername = :username AND c.status = 'connected') " +
+           "OR p.username IN (SELECT c.fromUsername FROM Connection c WHERE c.toUsername = :username AND c.status = 'connected')) " +
+           "AND p.rankScore IS NOT NULL " +
+           "ORDER BY p.rankScore DESC")
+    List<Object[]> findRankedCandidates(String username, Pageable pageable);
+
+    @Query("SELECT p.id, p.createdDate, p.likeCount, p.commentCount FROM Post p WHERE p.rankScore IS NULL ORDER BY p.id")
+    List<Object[]> findUnranked(Pageable pageable);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Integer findLikeCountById(Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int adjustLikeCount(Long postId, int delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int adjustCommentCount(Long postId, int delta);
+
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Long findMaxId();
+
+    @Query("SELECT p.id, p.text FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findTextsByIds(Collection<Long> postIds);
+
+    @Query("SELECT p.id, p.text FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findTextsAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId OR p.createdDate >= :since ORDER BY p.id")
+    List<Long> findIdsAfterOrCreatedSince(Long afterId, LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.likeCount = (SELECT COUNT(pl) FROM PostLike pl WHERE pl.postId = p.id) " +
+           "WHERE p.id BETWEEN :fromId AND :toId " +
+           "AND p.likeCount <> (SELECT COUNT(pl) FROM PostLike pl WHERE pl.postId = p.id)")
+    int reconcileLikeCounts(Long fromId, Long toId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.postId = p.id) " +
+           "WHERE p.id BETWEEN :fromId AND :toId " +
+           "AND p.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.postId = p.id)")
+    int reconcileCommentCounts(Long fromId, Long toId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.username = :username ORDER BY p.id")
+    List<Long> findIdsByUsername(String username, Pageable pageable);
+
+    // Bulk deletes bypass the entity, so the hashtag links and media collections are removed
+    // explicitly before the posts themselves.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM post_hashtags WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteHashtagLinksByPostIds(Collection<Long> postIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM post_image_urls WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteImageUrlsByPostIds(Collection<Long> postIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM post_video_urls WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteVideoUrlsByPostIds(Collection<Long> postIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Post p WHERE p.id IN :postIds")
+    int deleteByIds(Collection<Long> postIds);
+
+    @Query("SELECT p.username FROM Post p WHERE p.id = :postId")
+    String findUsernameById(Long postId);
+
+    @Query("SELECT p.id, p.username FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findAuthorsByIds(Collection<Long> postIds);
+}
@@ -0,0 +1,20 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ReadWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ReadWatermarkRepository extends JpaRepository<ReadWatermark, Long> {
+    
+    @Query("SELECT w.lastReadMessageId FROM ReadWatermark w WHERE w.reader = :reader AND w.partner = :partner")
+    Long findLastReadMessageId(String reader, String partner);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReadWatermark w WHERE w.reader = :username OR w.partner = :username")
+    int deleteAllForUser(String username);
+}
@@ -0,0 +1,65 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+    
+    @Query("SELECT t FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername " +
+           "ORDER BY t.createdDate DESC, t.postId DESC")
+    List<TimelineEntry> findTimeline(String ownerUsername, Pageable pageable);
+    
+    @Query("SELECT t FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername " +
+           "AND (t.createdDate < :createdDate OR (t.createdDate = :createdDate AND t.postId < :postId)) " +
+           "ORDER BY t.createdDate DESC, t.postId DESC")
+    List<TimelineEntry> findTimelineBefore(String ownerUsername, LocalDateTime createdDate, Long postId, Pageable pageable);
+    
+    // Sorts at most max-entries rows found through idx_timeline_owner_created, instead of every
+    // post by the owner's connections.
+    @Query("SELECT p.id, p.username, p.rankScore FROM TimelineEntry t JOIN Post p ON p.id = t.postId " +
+           "WHERE t.ownerUsername = :ownerUsername AND p.rankScore IS NOT NULL " +
+           "ORDER BY p.rankScore DESC")
+    List<Object[]> findRankedCandidates(String ownerUsername, Pageable pageable);
+    
+    @Query("SELECT t.postId FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername AND t.authorUsername = :authorUsername")
+    List<Long> findPostIdsByOwnerAndAuthor(String ownerUsername, String authorUsername);
+    
+    @Query("SELECT t.ownerUsername FROM TimelineEntry t GROUP BY t.ownerUsername HAVING COUNT(t) > :maxEntries")
+    List<String> findOwnersExceeding(long maxEntries);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername " +
+           "AND (t.createdDate < :createdDate OR (t.createdDate = :createdDate AND t.postId <= :postId))")
+    int deleteFromPosition(String ownerUsername, LocalDateTime createdDate, Long postId);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId IN :postIds")
+    int deleteByPostIds(Collection<Long> postIds);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername")
+    int deleteByOwner(String ownerUsername);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerUsername = :ownerUsername AND t.authorUsername = :authorUsername")
+    int deleteByOwnerAndAuthor(String ownerUsername, String authorUsername);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerUsername = :username OR t.authorUsername = :username")
+    int deleteByUsername(String username);
+}
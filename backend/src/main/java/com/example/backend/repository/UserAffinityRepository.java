@@ -0,0 +1,23 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.UserAffinity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserAffinityRepository extends JpaRepository<UserAffinity, Long> {
+    
+    @Query("SELECT a.author, a.score FROM UserAffinity a WHERE a.viewer = :viewer AND a.author IN :authors")
+    List<Object[]> findScores(String viewer, Collection<String> authors);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserAffinity a WHERE a.viewer = :username OR a.author = :username")
+    int deleteAllForUser(String username);
+}
@@ -1,10 +1,13 @@
 package com.example.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.example.backend.dto.UserSummary;
 import com.example.backend.model.Users;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,9 @@ public interface UserRepository extends JpaRepository<Users, Long>
     Users findByUsername(String username);
     Users findByEmail(String email);
     List<Users> findByUsernameContainingIgnoreCase(String term);
+    List<Users> findByUsernameIn(Collection<String> usernames);
+    
+    @Query("SELECT new com.example.backend.dto.UserSummary(u.username, u.firstName, u.lastName, u.profilePhoto, u.major) " +
+           "FROM Users u WHERE u.username IN :usernames")
+    List<UserSummary> findSummariesByUsernameIn(Collection<String> usernames);
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.AccountDeletionStatus;
+import com.example.backend.dto.AccountDeletionStatus.State;
+import com.example.backend.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Runs account deletions on a background thread and tracks their progress in memory.
+// Re-requesting a failed or interrupted deletion simply picks up whatever is left.
+@Service
+public class AccountDeletionService {
+    
+    private static final Logger log = Logger.getLogger(AccountDeletionService.class.getName());
+    
+    private static final long STATUS_RETENTION_HOURS = 24;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserService userService;
+    
+    private final Map<String, AccountDeletionStatus> jobs = new ConcurrentHashMap<>();
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public AccountDeletionStatus requestDeletion(String username) {
+        purgeFinishedJobs();
+        
+        if (userRepository.findByUsername(username) == null) {
+            throw new IllegalArgumentException("User not found with username: " + username);
+        }
+        
+        AccountDeletionStatus[] created = new AccountDeletionStatus[1];
+        AccountDeletionStatus status = jobs.compute(username, (key, existing) -> {
+            if (existing != null && !existing.isFinished()) {
+                return existing;
+            }
+            created[0] = new AccountDeletionStatus(username);
+            return created[0];
+        });
+        
+        if (created[0] != null) {
+            executor.submit(() -> run(created[0]));
+        }
+        return status;
+    }
+    
+    public AccountDeletionStatus getStatus(String username) {
+        return jobs.get(username);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void run(AccountDeletionStatus status) {
+        status.setState(State.RUNNING);
+        try {
+            userService.deleteUserAccount(status);
+            status.setState(State.COMPLETED);
+        } catch (Exception e) {
+            status.setError(e.getMessage());
+            status.setState(State.FAILED);
+            log.log(Level.SEVERE, "Failed to delete user account with username: " + status.getUsername(), e);
+        } finally {
+            status.setFinishedAt(LocalDateTime.now());
+        }
+    }
+    
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(STATUS_RETENTION_HOURS);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
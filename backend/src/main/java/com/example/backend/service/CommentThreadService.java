@@ -0,0 +1,68 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.CommentPage;
+import com.example.backend.dto.CommentRow;
+import com.example.backend.dto.PageCursor;
+import com.example.backend.repository.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CommentThreadService {
+    
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private FeedHydrationService feedHydrationService;
+    
+    public CommentPage getComments(Long postId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        PageCursor position = (cursor == null || cursor.isEmpty()) ? null : PageCursor.decode(cursor);
+        
+        List<CommentRow> comments = position == null ?
+            commentRepository.findTopLevelPage(postId, pageRequest) :
+            commentRepository.findTopLevelPageAfter(postId, position.getCreatedDate(), position.getId(), pageRequest);
+        
+        return toPage(comments, pageSize);
+    }
+    
+    public CommentPage getReplies(Long commentId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        PageCursor position = (cursor == null || cursor.isEmpty()) ? null : PageCursor.decode(cursor);
+        
+        List<CommentRow> replies = position == null ?
+            commentRepository.findReplyPage(commentId, pageRequest) :
+            commentRepository.findReplyPageAfter(commentId, position.getCreatedDate(), position.getId(), pageRequest);
+        
+        return toPage(replies, pageSize);
+    }
+    
+    private CommentPage toPage(List<CommentRow> comments, int pageSize) {
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = new ArrayList<>(comments.subList(0, pageSize));
+            CommentRow last = comments.get(pageSize - 1);
+            nextCursor = new PageCursor(last.createdDate(), last.id()).encode();
+        }
+        
+        return new CommentPage(feedHydrationService.formatCommentPage(comments), nextCursor);
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
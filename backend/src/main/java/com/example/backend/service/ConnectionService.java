@@ -10,10 +10,9 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.dto.UserSummary;
 import com.example.backend.model.Connection;
-import com.example.backend.model.Users;
 import com.example.backend.repository.ConnectionRepository;
-import com.example.backend.repository.UserRepository;
 
 @Service
 public class ConnectionService {
@@ -22,7 +21,16 @@ public class ConnectionService {
     private ConnectionRepository connectionRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserSummaryCache userSummaryCache;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private FeedVersionService feedVersionService;
+    
+    @Autowired
+    private FeedEventDispatcher feedEventDispatcher;
     
     public Connection createConnectionRequest(String fromUsername, String toUsername) {
         Optional<Connection> existingConnection = 
@@ -82,7 +90,11 @@ public class ConnectionService {
             Connection connection = connectionOpt.get();
             connection.setStatus("connected");
             connection.setResponseDate(LocalDateTime.now());
-            return connectionRepository.save(connection);
+            Connection savedConnection = connectionRepository.save(connection);
+            timelineService.onConnectionAccepted(fromUsername, toUsername);
+            feedVersionService.onConnectionChanged(fromUsername, toUsername);
+            feedEventDispatcher.onConnectionAccepted(fromUsername, toUsername);
+            return savedConnection;
         }
         
         throw new RuntimeException("Connection request not found");
@@ -108,44 +120,49 @@ public class ConnectionService {
         
         connectionRepository.findByFromUsernameAndToUsername(toUsername, fromUsername)
             .ifPresent(connectionRepository::delete);
+        
+        timelineService.onConnectionRemoved(fromUsername, toUsername);
+        feedVersionService.onConnectionChanged(fromUsername, toUsername);
+        feedEventDispatcher.onConnectionRemoved(fromUsername, toUsername);
     }
     
     public List<Map<String, Object>> getPendingRequestsForUser(String username) {
         List<Connection> pendingConnections = 
             connectionRepository.findByToUsernameAndStatus(username, "pending");
         
-        List<Map<String, Object>> result = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
         for (Connection connection : pendingConnections) {
-            Users requestingUser = userRepository.findByUsername(connection.getFromUsername());
-            if (requestingUser != null) {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("username", requestingUser.getUsername());
-                userInfo.put("firstName", requestingUser.getFirstName());
-                userInfo.put("lastName", requestingUser.getLastName());
-                userInfo.put("profilePhoto", requestingUser.getProfilePhoto());
-                result.add(userInfo);
-            }
+            usernames.add(connection.getFromUsername());
         }
         
-        return result;
+        return toUserInfos(usernames);
     }
 
     public List<Map<String, Object>> getUserConnections(String username) {
         List<Connection> userConnections = 
             connectionRepository.findAllConnectionsForUser(username);
         
-        List<Map<String, Object>> result = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
         for (Connection connection : userConnections) {
-            String connectedUsername = connection.getFromUsername().equals(username) ? 
-                                      connection.getToUsername() : connection.getFromUsername();
-            
-            Users connectedUser = userRepository.findByUsername(connectedUsername);
-            if (connectedUser != null) {
+            usernames.add(connection.getFromUsername().equals(username) ? 
+                          connection.getToUsername() : connection.getFromUsername());
+        }
+        
+        return toUserInfos(usernames);
+    }
+    
+    private List<Map<String, Object>> toUserInfos(List<String> usernames) {
+        Map<String, UserSummary> usersByUsername = userSummaryCache.getAll(usernames);
+        
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String username : usernames) {
+            UserSummary user = usersByUsername.get(username);
+            if (user != null) {
                 Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("username", connectedUser.getUsername());
-                userInfo.put("firstName", connectedUser.getFirstName());
-                userInfo.put("lastName", connectedUser.getLastName());
-                userInfo.put("profilePhoto", connectedUser.getProfilePhoto());
+                userInfo.put("username", user.username());
+                userInfo.put("firstName", user.firstName());
+                userInfo.put("lastName", user.lastName());
+                userInfo.put("profilePhoto", user.profilePhoto());
                 result.add(userInfo);
             }
         }
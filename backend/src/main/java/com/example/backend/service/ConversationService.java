@@ -0,0 +1,363 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.dto.AuthorView;
+import com.example.backend.dto.ConversationPage;
+import com.example.backend.dto.ConversationPreview;
+import com.example.backend.dto.InboxRow;
+import com.example.backend.dto.MessagePage;
+import com.example.backend.dto.MessageRequest;
+import com.example.backend.dto.PageCursor;
+import com.example.backend.model.ConversationSummary;
+import com.example.backend.model.Message;
+import com.example.backend.model.ReadWatermark;
+import com.example.backend.repository.ConversationSummaryRepository;
+import com.example.backend.repository.MessageRepository;
+import com.example.backend.repository.ReadWatermarkRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Sends and reads direct messages while keeping each participant's conversation_summary row in
+// step in the same transaction, so the inbox is a range scan over the owner's summaries instead
+// of a pass over their messages. Pages are keyed on the (timestamp, id) of each conversation's
+// latest message. Read state is one watermark per (reader, partner) rather than a flag per message.
+@Service
+public class ConversationService {
+
+    private static final Logger log = Logger.getLogger(ConversationService.class.getName());
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_MESSAGE_PAGE_SIZE = 50;
+    private static final int MAX_MESSAGE_PAGE_SIZE = 200;
+    private static final int SNIPPET_LENGTH = 255;
+
+    // Adds to the unread count and moves the latest message forward, never backward, so two
+    // sends that commit out of order still leave the newer message in place.
+    private static final String UPSERT_SUMMARY =
+        "INSERT INTO conversation_summary " +
+        "(owner, partner, last_message_id, last_sender, snippet, last_timestamp, unread_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "unread_count = unread_count + VALUES(unread_count), " +
+        "last_sender = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(last_sender) ELSE last_sender END, " +
+        "snippet = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(snippet) ELSE snippet END, " +
+        "last_timestamp = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(last_timestamp) ELSE last_timestamp END, " +
+        "last_message_id = GREATEST(last_message_id, VALUES(last_message_id))";
+
+    private static final String ADVANCE_WATERMARK =
+        "INSERT INTO message_read_watermark (reader, partner, last_read_message_id) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE last_read_message_id = GREATEST(last_read_message_id, VALUES(last_read_message_id))";
+
+    @Value("${messages.summary.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    @Value("${messages.conversation-key.backfill-batch-size:1000}")
+    private int conversationKeyBatchSize;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private ReadWatermarkRepository readWatermarkRepository;
+
+    @Autowired
+    private FeedRankingService feedRankingService;
+
+    @Autowired
+    private MessagePushService messagePushService;
+
+    @Autowired
+    private MessageSyncService messageSyncService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public Message sendMessage(MessageRequest messageRequest) {
+        Message message = new Message();
+        message.setFromUsername(messageRequest.getFromUsername());
+        message.setToUsername(messageRequest.getToUsername());
+        message.setText(messageRequest.getText());
+        message.setTimestamp(LocalDateTime.now());
+        message.setRead(false);
+
+        if (messageRequest.getAttachmentUrl() != null && !messageRequest.getAttachmentUrl().isEmpty()) {
+            message.setAttachmentUrl(messageRequest.getAttachmentUrl());
+            message.setAttachmentType(messageRequest.getAttachmentType());
+            message.setAttachmentName(messageRequest.getAttachmentName());
+        }
+
+        MessageSyncService.PendingSend pendingSend =
+            messageSyncService.beginSend(message.getFromUsername(), message.getToUsername());
+        Message savedMessage = messageRepository.save(message);
+        recordInSummaries(savedMessage);
+        feedRankingService.recordMessage(savedMessage.getFromUsername(), savedMessage.getToUsername());
+        messagePushService.pushMessage(savedMessage);
+        messageSyncService.onMessageSent(pendingSend, savedMessage);
+        return savedMessage;
+    }
+
+    @Transactional
+    public List<Message> getConversation(String username, String otherUsername) {
+        markConversationRead(username, otherUsername);
+        return messageRepository.findConversationMessages(Message.conversationKey(username, otherUsername));
+    }
+
+    // Pages backwards through the history from the newest message, or from just before the
+    // message id in before; each page is returned oldest first. Only loading the newest page
+    // marks the conversation read.
+    @Transactional
+    public MessagePage getConversationPage(String username, String otherUsername, Long before, Integer limit) {
+        int pageSize = resolvePageSize(limit, DEFAULT_MESSAGE_PAGE_SIZE, MAX_MESSAGE_PAGE_SIZE);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        String conversationKey = Message.conversationKey(username, otherUsername);
+
+        List<Message> messages;
+        if (before == null) {
+            markConversationRead(username, otherUsername);
+            messages = messageRepository.findLatestInConversation(conversationKey, pageRequest);
+        } else {
+            messages = messageRepository.findInConversationBefore(conversationKey, before, pageRequest);
+        }
+
+        Long nextBefore = null;
+        if (messages.size() > pageSize) {
+            messages = new ArrayList<>(messages.subList(0, pageSize));
+            nextBefore = messages.get(pageSize - 1).getId();
+        }
+        Collections.reverse(messages);
+        return new MessagePage(messages, nextBefore);
+    }
+
+    public Stream<Message> streamConversation(String username, String otherUsername) {
+        return messageRepository.streamConversationMessages(Message.conversationKey(username, otherUsername));
+    }
+
+    // Moves the reader's watermark up to the newest message the partner has sent them.
+    @Transactional
+    public void markConversationRead(String username, String otherUsername) {
+        ConversationSummary summary = conversationSummaryRepository.findForUpdate(username, otherUsername);
+        Long latestId = messageRepository.findLatestIdBetween(otherUsername, username);
+        if (latestId == null) {
+            return;
+        }
+
+        jdbcTemplate.update(ADVANCE_WATERMARK, username, otherUsername, latestId);
+        if (summary != null && summary.getUnreadCount() > 0) {
+            conversationSummaryRepository.setUnread(username, otherUsername, 0);
+            unreadCounterService.adjust(username, -summary.getUnreadCount());
+        }
+        messagePushService.pushReadReceipt(username, otherUsername, latestId);
+    }
+
+    // Reading a message also reads everything the same partner sent before it. Returns false
+    // when the message does not exist or was not sent to username.
+    @Transactional
+    public boolean markMessageAsRead(Long messageId, String username) {
+        Message message = messageRepository.findById(messageId).orElse(null);
+        if (message == null || !message.getToUsername().equals(username)) {
+            return false;
+        }
+
+        String partner = message.getFromUsername();
+        ConversationSummary summary = conversationSummaryRepository.findForUpdate(username, partner);
+        jdbcTemplate.update(ADVANCE_WATERMARK, username, partner, messageId);
+        Long lastReadId = readWatermarkRepository.findLastReadMessageId(username, partner);
+        int unreadCount = (int) messageRepository.countAfter(partner, username, lastReadId);
+        if (summary != null && summary.getUnreadCount() != unreadCount) {
+            conversationSummaryRepository.setUnread(username, partner, unreadCount);
+            unreadCounterService.adjust(username, unreadCount - summary.getUnreadCount());
+        }
+        messagePushService.pushReadReceipt(username, partner, lastReadId);
+        return true;
+    }
+
+    public List<Message> getUnreadMessages(String username) {
+        return messageRepository.findUnreadMessages(username);
+    }
+
+    public int getUnreadCount(String username) {
+        return unreadCounterService.getUnreadCount(username);
+    }
+
+    public List<ConversationPreview> getInbox(String username) {
+        return toPreviews(conversationSummaryRepository.findInbox(username, Pageable.unpaged()));
+    }
+
+    public ConversationPage getInboxPage(String username, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<InboxRow> rows;
+        if (cursor == null) {
+            rows = conversationSummaryRepository.findInbox(username, pageRequest);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            rows = conversationSummaryRepository.findInboxBefore(
+                username, position.getCreatedDate(), position.getId(), pageRequest);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            InboxRow last = rows.get(pageSize - 1);
+            nextCursor = new PageCursor(last.timestamp(), last.messageId()).encode();
+        }
+        return new ConversationPage(toPreviews(rows), nextCursor);
+    }
+
+    @Transactional
+    public void onUserDeleted(String username) {
+        conversationSummaryRepository.deleteAllForUser(username);
+        readWatermarkRepository.deleteAllForUser(username);
+        messageSyncService.onUserDeleted(username);
+        unreadCounterService.onUserDeleted(username);
+    }
+
+    // Read state is migrated before summaries are built, since their unread counts are taken
+    // from the watermarks.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        assignConversationKeys();
+        migrateReadFlags();
+        backfillSummaries();
+    }
+
+    // Messages stored before conversation keys existed get theirs in batches.
+    private void assignConversationKeys() {
+        int assigned = 0;
+        List<Long> ids;
+        while (!(ids = messageRepository.findIdsWithoutConversationKey(PageRequest.of(0, conversationKeyBatchSize))).isEmpty()) {
+            messageRepository.assignConversationKeys(ids);
+            assigned += ids.size();
+        }
+
+        if (assigned > 0) {
+            log.info("Assigned conversation keys to " + assigned + " messages");
+        }
+    }
+
+    // Seeds the watermarks from the old per-message read flags the first time the application
+    // starts with none: each one sits just below the oldest message still flagged unread, or at
+    // the newest message when every one is read.
+    private void migrateReadFlags() {
+        if (readWatermarkRepository.count() > 0) {
+            return;
+        }
+
+        List<ReadWatermark> watermarks = new ArrayList<>();
+        for (Object[] row : messageRepository.findReadFlagBoundaries()) {
+            Long lastReadId = row[3] != null ? (Long) row[3] - 1 : (Long) row[2];
+            if (lastReadId > 0) {
+                watermarks.add(new ReadWatermark((String) row[0], (String) row[1], lastReadId));
+            }
+        }
+        readWatermarkRepository.saveAll(watermarks);
+
+        if (!watermarks.isEmpty()) {
+            log.info("Migrated read flags to " + watermarks.size() + " read watermarks");
+        }
+    }
+
+    // Summaries are built from the messages themselves the first time the application starts
+    // with an empty summary table, one participant at a time.
+    private void backfillSummaries() {
+        if (conversationSummaryRepository.count() > 0) {
+            return;
+        }
+
+        int built = 0;
+        String afterUsername = "";
+        List<String> owners;
+        while (!(owners = messageRepository.findParticipantsAfter(afterUsername, PageRequest.of(0, backfillBatchSize))).isEmpty()) {
+            List<ConversationSummary> summaries = new ArrayList<>();
+            for (String owner : owners) {
+                for (Object[] row : messageRepository.findConversationHeads(owner)) {
+                    summaries.add(toSummary(owner, row));
+                }
+            }
+            conversationSummaryRepository.saveAll(summaries);
+            built += summaries.size();
+            afterUsername = owners.get(owners.size() - 1);
+        }
+
+        if (built > 0) {
+            log.info("Backfilled " + built + " conversation summaries");
+        }
+    }
+
+    private void recordInSummaries(Message message) {
+        String from = message.getFromUsername();
+        String to = message.getToUsername();
+        String snippet = snippet(message.getText());
+
+        List<Object[]> args = new ArrayList<>();
+        args.add(new Object[] { from, to, message.getId(), from, snippet, message.getTimestamp(), 0 });
+        if (!from.equals(to)) {
+            args.add(new Object[] { to, from, message.getId(), from, snippet, message.getTimestamp(), 1 });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY, args);
+
+        if (!from.equals(to)) {
+            unreadCounterService.adjust(to, 1);
+        }
+    }
+
+    private ConversationSummary toSummary(String owner, Object[] row) {
+        ConversationSummary summary = new ConversationSummary();
+        summary.setOwner(owner);
+        summary.setPartner((String) row[0]);
+        summary.setLastMessageId((Long) row[1]);
+        summary.setSnippet(snippet((String) row[2]));
+        summary.setLastSender((String) row[3]);
+        summary.setLastTimestamp((LocalDateTime) row[4]);
+        summary.setUnreadCount(row[5] != null ? ((Number) row[5]).intValue() : 0);
+        return summary;
+    }
+
+    private String snippet(String text) {
+        if (text == null || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SNIPPET_LENGTH);
+    }
+
+    private List<ConversationPreview> toPreviews(List<InboxRow> rows) {
+        List<ConversationPreview> previews = new ArrayList<>(rows.size());
+        for (InboxRow row : rows) {
+            AuthorView user = new AuthorView(row.partner(), row.firstName() + " " + row.lastName(), row.profilePhoto());
+            ConversationPreview.LastMessage lastMessage =
+                new ConversationPreview.LastMessage(row.text(), row.timestamp(), row.lastUnread());
+            previews.add(new ConversationPreview(row.partner(), user, lastMessage, row.unreadCount()));
+        }
+        return previews;
+    }
+
+    private int resolvePageSize(Integer limit, int defaultSize, int maxSize) {
+        if (limit == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(limit, maxSize));
+    }
+}
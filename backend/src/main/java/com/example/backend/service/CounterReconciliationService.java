@@ -0,0 +1,53 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostRepository;
+
+import java.util.logging.Logger;
+
+// Periodically corrects drift between the denormalized like/comment counters and the
+// post_likes, comment_likes and comments tables, a bounded id range at a time.
+@Service
+public class CounterReconciliationService {
+
+    private static final Logger log = Logger.getLogger(CounterReconciliationService.class.getName());
+
+    @Value("${counters.reconcile-batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        int fixedPosts = 0;
+        Long maxPostId = postRepository.findMaxId();
+        if (maxPostId != null) {
+            for (long fromId = 1; fromId <= maxPostId; fromId += batchSize) {
+                long toId = fromId + batchSize - 1;
+                fixedPosts += postRepository.reconcileLikeCounts(fromId, toId);
+                fixedPosts += postRepository.reconcileCommentCounts(fromId, toId);
+            }
+        }
+
+        int fixedComments = 0;
+        Long maxCommentId = commentRepository.findMaxId();
+        if (maxCommentId != null) {
+            for (long fromId = 1; fromId <= maxCommentId; fromId += batchSize) {
+                fixedComments += commentRepository.reconcileLikeCounts(fromId, fromId + batchSize - 1);
+            }
+        }
+
+        if (fixedPosts > 0 || fixedComments > 0) {
+            log.info("Reconciled counters on " + fixedPosts + " post rows and " + fixedComments + " comment rows");
+        }
+    }
+}
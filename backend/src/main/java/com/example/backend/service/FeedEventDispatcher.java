@@ -0,0 +1,163 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.backend.repository.ConnectionRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Pushes compact feed deltas to viewers connected over server-sent events. Subscriptions are
+// indexed by every author in the viewer's feed (the viewer and their connections), so publishing
+// an event for an author is a map lookup with no database access. Idle streams hold no request
+// thread; all sends happen on one dispatch thread so a slow client never stalls a writer.
+@Service
+public class FeedEventDispatcher {
+
+    @Value("${feed.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    private final Map<String, Set<Subscription>> subscriptionsByAuthor = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscription>> subscriptionsByViewer = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static class Subscription {
+        private final String viewer;
+        private final SseEmitter emitter;
+        private final Set<String> authors = ConcurrentHashMap.newKeySet();
+
+        private Subscription(String viewer, SseEmitter emitter) {
+            this.viewer = viewer;
+            this.emitter = emitter;
+        }
+    }
+
+    public SseEmitter subscribe(String viewer) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(viewer, emitter);
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        subscriptionsByViewer.computeIfAbsent(viewer, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        follow(subscription, viewer);
+        for (String author : connectionRepository.findConnectedUsernames(viewer)) {
+            follow(subscription, author);
+        }
+        return emitter;
+    }
+
+    // Sends an event to everyone whose feed contains the author, once the write has committed.
+    public void publish(String author, String eventName, Map<String, Object> data) {
+        AfterCommit.run(() -> dispatcher.execute(() -> {
+            Set<Subscription> subscriptions = subscriptionsByAuthor.get(author);
+            if (subscriptions == null) {
+                return;
+            }
+            for (Subscription subscription : new ArrayList<>(subscriptions)) {
+                send(subscription, SseEmitter.event().name(eventName).data(data));
+            }
+        }));
+    }
+
+    public void onConnectionAccepted(String username1, String username2) {
+        AfterCommit.run(() -> {
+            forEachSubscription(username1, subscription -> follow(subscription, username2));
+            forEachSubscription(username2, subscription -> follow(subscription, username1));
+        });
+    }
+
+    public void onConnectionRemoved(String username1, String username2) {
+        AfterCommit.run(() -> {
+            forEachSubscription(username1, subscription -> unfollow(subscription, username2));
+            forEachSubscription(username2, subscription -> unfollow(subscription, username1));
+        });
+    }
+
+    // Comment lines keep proxies from closing idle streams and reveal clients that went away.
+    @Scheduled(fixedDelayString = "${feed.stream.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        dispatcher.execute(() -> {
+            List<Subscription> subscriptions = new ArrayList<>();
+            subscriptionsByViewer.values().forEach(subscriptions::addAll);
+            for (Subscription subscription : subscriptions) {
+                send(subscription, SseEmitter.event().comment("keepalive"));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        List<Subscription> subscriptions = new ArrayList<>();
+        subscriptionsByViewer.values().forEach(subscriptions::addAll);
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    private void forEachSubscription(String viewer, Consumer<Subscription> action) {
+        Set<Subscription> subscriptions = subscriptionsByViewer.get(viewer);
+        if (subscriptions != null) {
+            subscriptions.forEach(action);
+        }
+    }
+
+    private void follow(Subscription subscription, String author) {
+        subscription.authors.add(author);
+        subscriptionsByAuthor.computeIfAbsent(author, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+    }
+
+    private void unfollow(Subscription subscription, String author) {
+        if (author.equals(subscription.viewer)) {
+            return;
+        }
+        subscription.authors.remove(author);
+        removeFrom(subscriptionsByAuthor, author, subscription);
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        for (String author : subscription.authors) {
+            removeFrom(subscriptionsByAuthor, author, subscription);
+        }
+        removeFrom(subscriptionsByViewer, subscription.viewer, subscription);
+    }
+
+    private void removeFrom(Map<String, Set<Subscription>> index, String key, Subscription subscription) {
+        index.computeIfPresent(key, (k, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.AuthorView;
+import com.example.backend.dto.CommentRow;
+import com.example.backend.dto.CommentView;
+import com.example.backend.dto.UserSummary;
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class FeedHydrationService {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserSummaryCache userSummaryCache;
+
+    // Fills in author details and comment threads for a page of posts using a fixed number
+    // of batched queries, however many posts and comments there are. Comments are read as
+    // projections already joined with their authors; like counts come from the denormalized
+    // columns on Post and Comment.
+    public void hydrate(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+
+        Set<Long> postIds = new LinkedHashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Post post : posts) {
+            postIds.add(post.getId());
+            usernames.add(post.getUsername());
+        }
+
+        Map<Long, List<CommentRow>> commentsByPostId = groupByPostId(commentRepository.findRowsByPostIds(postIds));
+        Map<String, UserSummary> usersByUsername = userSummaryCache.getAll(usernames);
+
+        for (Post post : posts) {
+            applyAuthor(post, usersByUsername);
+            post.setComments(formatThreads(commentsByPostId.getOrDefault(post.getId(), Collections.emptyList())));
+        }
+    }
+
+    // Like hydrate, but embeds only the first previewSize top-level comments of each post,
+    // each with its reply count instead of its replies.
+    public void hydrateWithPreview(List<Post> posts, int previewSize) {
+        if (posts.isEmpty()) {
+            return;
+        }
+
+        Set<Long> postIds = new LinkedHashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Post post : posts) {
+            postIds.add(post.getId());
+            usernames.add(post.getUsername());
+        }
+
+        List<CommentRow> previews = previewSize > 0 ?
+            commentRepository.findTopLevelPreview(postIds, previewSize) :
+            Collections.emptyList();
+        Map<Long, List<CommentRow>> previewsByPostId = groupByPostId(previews);
+
+        Map<Long, Integer> replyCounts = countReplies(previews);
+        Map<String, UserSummary> usersByUsername = userSummaryCache.getAll(usernames);
+
+        for (Post post : posts) {
+            applyAuthor(post, usersByUsername);
+
+            List<CommentView> formattedPreview = new ArrayList<>();
+            for (CommentRow comment : previewsByPostId.getOrDefault(post.getId(), Collections.emptyList())) {
+                formattedPreview.add(toView(comment, replyCounts.getOrDefault(comment.id(), 0), null));
+            }
+            post.setComments(formattedPreview);
+        }
+    }
+
+    // Formats a flat page of comments or replies, attaching reply counts to top-level comments.
+    public List<CommentView> formatCommentPage(List<CommentRow> comments) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<CommentRow> topLevel = new ArrayList<>();
+        for (CommentRow comment : comments) {
+            if (comment.parentId() == null) {
+                topLevel.add(comment);
+            }
+        }
+
+        Map<Long, Integer> replyCounts = countReplies(topLevel);
+
+        List<CommentView> formattedComments = new ArrayList<>();
+        for (CommentRow comment : comments) {
+            Integer replyCount = comment.parentId() == null ? replyCounts.getOrDefault(comment.id(), 0) : null;
+            formattedComments.add(toView(comment, replyCount, null));
+        }
+        return formattedComments;
+    }
+
+    private Map<Long, List<CommentRow>> groupByPostId(List<CommentRow> comments) {
+        Map<Long, List<CommentRow>> commentsByPostId = new HashMap<>();
+        for (CommentRow comment : comments) {
+            commentsByPostId
+                .computeIfAbsent(comment.postId(), k -> new ArrayList<>())
+                .add(comment);
+        }
+        return commentsByPostId;
+    }
+
+    private Map<Long, Integer> countReplies(List<CommentRow> comments) {
+        Map<Long, Integer> replyCounts = new HashMap<>();
+        if (comments.isEmpty()) {
+            return replyCounts;
+        }
+
+        List<Long> commentIds = new ArrayList<>();
+        for (CommentRow comment : comments) {
+            commentIds.add(comment.id());
+        }
+        for (Object[] row : commentRepository.countRepliesByParentIds(commentIds)) {
+            replyCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return replyCounts;
+    }
+
+    private void applyAuthor(Post post, Map<String, UserSummary> usersByUsername) {
+        UserSummary author = usersByUsername.get(post.getUsername());
+        if (author != null) {
+            post.setAuthorUsername(post.getUsername());
+            post.setAuthorName(author.name());
+            post.setAuthorProfilePhoto(author.profilePhoto());
+            post.setAuthorMajor(author.major());
+        }
+    }
+
+    private List<CommentView> formatThreads(List<CommentRow> comments) {
+        Map<Long, List<CommentView>> repliesByParentId = new HashMap<>();
+        List<CommentRow> topLevelComments = new ArrayList<>();
+
+        for (CommentRow comment : comments) {
+            if (comment.parentId() == null) {
+                topLevelComments.add(comment);
+            } else {
+                repliesByParentId
+                    .computeIfAbsent(comment.parentId(), k -> new ArrayList<>())
+                    .add(toView(comment, null, null));
+            }
+        }
+
+        List<CommentView> formattedComments = new ArrayList<>(topLevelComments.size());
+        for (CommentRow comment : topLevelComments) {
+            formattedComments.add(toView(comment, null, repliesByParentId.get(comment.id())));
+        }
+        return formattedComments;
+    }
+
+    private CommentView toView(CommentRow comment, Integer replyCount, List<CommentView> replies) {
+        AuthorView author = comment.authorUsername() != null ?
+            new AuthorView(comment.authorUsername(), comment.firstName() + " " + comment.lastName(), comment.profilePhoto()) :
+            new AuthorView(comment.username(), "Unknown User", null);
+
+        return new CommentView(comment.id(), comment.text(), comment.createdDate(), comment.likeCount(),
+            comment.parentId(), author, replyCount, replies);
+    }
+}
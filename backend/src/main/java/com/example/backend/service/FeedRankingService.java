@@ -0,0 +1,285 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.PostLike;
+import com.example.backend.repository.PostRepository;
+import com.example.backend.repository.UserAffinityRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Ranked feed scores kept in "log-time" form: an event of weight w at time t contributes
+// w * e^(t / tau), and a score is the log of the sum of its contributions. Dividing every score
+// by e^(now / tau) applies the same exponential decay to all of them, so stored scores never
+// need to be recomputed as time passes; engagement just adds to them, and ordering by the stored
+// value is ordering by the decayed one. A post starts with weight 1 at its creation time, then
+// gains weight with every like and comment, so recent engagement counts for more than old.
+// Viewer-to-author affinity is kept the same way from likes, comments and messages.
+@Service
+public class FeedRankingService {
+
+    private static final Logger log = Logger.getLogger(FeedRankingService.class.getName());
+
+    // Scores are measured from here rather than from 1970 to keep the exponents small.
+    private static final long ORIGIN_EPOCH_SECOND = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private static final String ADD_POST_SCORE =
+        "UPDATE post SET rank_score = GREATEST(rank_score, ?) + LN(1 + EXP(-ABS(rank_score - ?))) " +
+        "WHERE id = ? AND rank_score IS NOT NULL";
+
+    // Subtracts a contribution: log(e^s - e^c). A contribution that is all of the score (up to
+    // rounding) can't be taken out of a post, whose creation weight always remains.
+    private static final String REMOVE_POST_SCORE =
+        "UPDATE post SET rank_score = rank_score + LN(1 - EXP(? - rank_score)) " +
+        "WHERE id = ? AND rank_score > ? + 1e-9";
+
+    private static final String ADD_AFFINITY =
+        "INSERT INTO user_affinity (viewer, author, score) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE score = GREATEST(score, VALUES(score)) + LN(1 + EXP(-ABS(score - VALUES(score))))";
+
+    // An affinity made of nothing but the removed contribution is dropped; must run before
+    // REMOVE_AFFINITY, which would otherwise leave a near-equal score just below it.
+    private static final String DROP_AFFINITY =
+        "DELETE FROM user_affinity WHERE viewer = ? AND author = ? AND score <= ? + 1e-9";
+
+    private static final String REMOVE_AFFINITY =
+        "UPDATE user_affinity SET score = score + LN(1 - EXP(? - score)) " +
+        "WHERE viewer = ? AND author = ? AND score > ? + 1e-9";
+
+    @Value("${feed.ranking.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${feed.ranking.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${feed.ranking.comment-weight:3.0}")
+    private double commentWeight;
+
+    @Value("${feed.ranking.message-weight:2.0}")
+    private double messageWeight;
+
+    @Value("${feed.ranking.affinity-weight:1.0}")
+    private double affinityWeight;
+
+    @Value("${feed.ranking.candidate-count:300}")
+    private int candidateCount;
+
+    @Value("${feed.ranking.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserAffinityRepository userAffinityRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public double initialScore(LocalDateTime createdDate) {
+        return logTime(1.0, createdDate);
+    }
+
+    @Transactional
+    public void recordLike(Long postId, String username, LocalDateTime likedAt) {
+        recordLikes(Map.of(postId, List.of(username)), likedAt);
+    }
+
+    // Applies a batch of new likes, e.g. the ones written by a like buffer flush. likedAt must be
+    // the created_date stored on the like rows, so that an unlike takes out exactly what was added.
+    @Transactional
+    public void recordLikes(Map<Long, List<String>> likersByPostId, LocalDateTime likedAt) {
+        if (likersByPostId.isEmpty()) {
+            return;
+        }
+
+        double likeScore = logTime(likeWeight, likedAt);
+        List<Object[]> scoreArgs = new ArrayList<>();
+        likersByPostId.forEach((postId, likers) -> {
+            for (int i = 0; i < likers.size(); i++) {
+                scoreArgs.add(new Object[] { likeScore, likeScore, postId });
+            }
+        });
+        jdbcTemplate.batchUpdate(ADD_POST_SCORE, scoreArgs);
+
+        List<Object[]> affinityArgs = new ArrayList<>();
+        for (Object[] row : postRepository.findAuthorsByIds(likersByPostId.keySet())) {
+            String author = (String) row[1];
+            for (String liker : likersByPostId.get((Long) row[0])) {
+                if (!liker.equals(author)) {
+                    affinityArgs.add(new Object[] { liker, author, likeScore });
+                }
+            }
+        }
+        if (!affinityArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_AFFINITY, affinityArgs);
+        }
+    }
+
+    // Takes deleted likes back out of the post scores and affinities, so toggling a like
+    // repeatedly can't inflate either. Likes without a stored date can't be matched and are left.
+    @Transactional
+    public void removeLikes(List<PostLike> likes) {
+        List<Long> postIds = new ArrayList<>();
+        for (PostLike like : likes) {
+            if (like.getCreatedDate() != null) {
+                postIds.add(like.getPostId());
+            }
+        }
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> authors = new HashMap<>();
+        for (Object[] row : postRepository.findAuthorsByIds(postIds)) {
+            authors.put((Long) row[0], (String) row[1]);
+        }
+
+        List<Object[]> scoreArgs = new ArrayList<>();
+        List<Object[]> affinityArgs = new ArrayList<>();
+        for (PostLike like : likes) {
+            if (like.getCreatedDate() == null) {
+                continue;
+            }
+            double likeScore = logTime(likeWeight, like.getCreatedDate());
+            scoreArgs.add(new Object[] { likeScore, like.getPostId(), likeScore });
+
+            String author = authors.get(like.getPostId());
+            if (author != null && !author.equals(like.getUsername())) {
+                affinityArgs.add(new Object[] { like.getUsername(), author, likeScore });
+            }
+        }
+        jdbcTemplate.batchUpdate(REMOVE_POST_SCORE, scoreArgs);
+        if (!affinityArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(DROP_AFFINITY, affinityArgs);
+            List<Object[]> removeArgs = new ArrayList<>();
+            for (Object[] args : affinityArgs) {
+                removeArgs.add(new Object[] { args[2], args[0], args[1], args[2] });
+            }
+            jdbcTemplate.batchUpdate(REMOVE_AFFINITY, removeArgs);
+        }
+    }
+
+    @Transactional
+    public void recordComment(Long postId, String username) {
+        double commentScore = logTime(commentWeight, LocalDateTime.now());
+        jdbcTemplate.update(ADD_POST_SCORE, commentScore, commentScore, postId);
+
+        String author = postRepository.findUsernameById(postId);
+        if (author != null && !author.equals(username)) {
+            jdbcTemplate.update(ADD_AFFINITY, username, author, commentScore);
+        }
+    }
+
+    // A conversation counts towards the affinity of both participants.
+    @Transactional
+    public void recordMessage(String fromUsername, String toUsername) {
+        if (fromUsername.equals(toUsername)) {
+            return;
+        }
+
+        double messageScore = logTime(messageWeight, LocalDateTime.now());
+        jdbcTemplate.batchUpdate(ADD_AFFINITY, List.of(
+            new Object[] { fromUsername, toUsername, messageScore },
+            new Object[] { toUsername, fromUsername, messageScore }));
+    }
+
+    @Transactional
+    public void onUserDeleted(String username) {
+        userAffinityRepository.deleteAllForUser(username);
+    }
+
+    // Re-ranks the viewer's highest-scoring candidate posts by adding their affinity to each
+    // author, and returns the post ids in final order.
+    public List<Long> rankFeed(String viewer) {
+        List<Object[]> candidates = timelineService.servesFromTimeline(viewer) ?
+            timelineService.readRankedCandidates(viewer, candidateCount) : new ArrayList<>();
+        if (candidates.isEmpty()) {
+            candidates = postRepository.findRankedCandidates(viewer, PageRequest.of(0, candidateCount));
+        }
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> authors = new HashSet<>();
+        for (Object[] row : candidates) {
+            authors.add((String) row[1]);
+        }
+        authors.remove(viewer);
+
+        Map<String, Double> affinities = new HashMap<>();
+        if (!authors.isEmpty()) {
+            for (Object[] row : userAffinityRepository.findScores(viewer, authors)) {
+                affinities.put((String) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+
+        double now = elapsedTaus(LocalDateTime.now());
+        Map<Long, Double> finalScores = new HashMap<>();
+        List<Long> postIds = new ArrayList<>();
+        for (Object[] row : candidates) {
+            Long postId = (Long) row[0];
+            Double affinity = affinities.get((String) row[1]);
+            double boost = affinity != null ? affinityWeight * Math.log1p(Math.exp(affinity - now)) : 0;
+            finalScores.put(postId, ((Number) row[2]).doubleValue() + boost);
+            postIds.add(postId);
+        }
+
+        postIds.sort(Comparator.comparing(finalScores::get).reversed());
+        return postIds;
+    }
+
+    // Posts from before ranking existed get a score as if their current engagement had all
+    // happened when they were created.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int scored = 0;
+        List<Object[]> batch;
+        while (!(batch = postRepository.findUnranked(PageRequest.of(0, backfillBatchSize))).isEmpty()) {
+            List<Object[]> args = new ArrayList<>();
+            for (Object[] row : batch) {
+                LocalDateTime createdDate = row[1] != null ? (LocalDateTime) row[1] : LocalDateTime.now();
+                double weight = 1.0 + likeWeight * (Integer) row[2] + commentWeight * (Integer) row[3];
+                args.add(new Object[] { logTime(weight, createdDate), row[0] });
+            }
+            jdbcTemplate.batchUpdate("UPDATE post SET rank_score = ? WHERE id = ?", args);
+            scored += batch.size();
+        }
+
+        if (scored > 0) {
+            log.info("Backfilled ranking scores for " + scored + " posts");
+        }
+    }
+
+    private double logTime(double weight, LocalDateTime time) {
+        return Math.log(weight) + elapsedTaus(time);
+    }
+
+    private double elapsedTaus(LocalDateTime time) {
+        double tauSeconds = halfLifeHours * 3600 / Math.log(2);
+        return (time.toEpochSecond(ZoneOffset.UTC) - ORIGIN_EPOCH_SECOND) / tauSeconds;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.backend.dto.FeedPage;
+import com.example.backend.dto.PageCursor;
+import com.example.backend.model.Post;
+import com.example.backend.repository.ConnectionRepository;
+import com.example.backend.repository.HashtagPostEntryRepository;
+import com.example.backend.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class FeedService {
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_OFFSET = 1000;
+    
+    @Value("${feed.comment-preview-size:2}")
+    private int commentPreviewSize;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private ConnectionRepository connectionRepository;
+    
+    @Autowired
+    private FeedHydrationService feedHydrationService;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private HashtagService hashtagService;
+    
+    @Autowired
+    private HashtagPostEntryRepository hashtagPostEntryRepository;
+    
+    @Autowired
+    private PostSearchService postSearchService;
+    
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+    
+    @Autowired
+    private FeedRankingService feedRankingService;
+    
+    public List<Post> getFeed(String username) {
+        List<Post> userPosts = postRepository.findByUsernameOrderByCreatedDateDesc(username);
+        
+        List<String> connections = connectionRepository.findConnectedUsernames(username);
+        
+        List<Post> connectionPosts = connections.isEmpty() ? 
+            new ArrayList<>() : 
+            postRepository.findByUsernameInOrderByCreatedDateDesc(connections);
+        
+        List<Post> allPosts = new ArrayList<>();
+        allPosts.addAll(userPosts);
+        allPosts.addAll(connectionPosts);
+        
+        allPosts.sort(Comparator.comparing(Post::getCreatedDate).reversed());
+        
+        feedHydrationService.hydrateWithPreview(allPosts, commentPreviewSize);
+        
+        return allPosts;
+    }
+    
+    // Same payload as getFeed, written as the posts are read and hydrated a chunk at a time.
+    public StreamingResponseBody streamFeed(String username) {
+        return jsonStreamingService.streamArray(() -> postRepository.streamFeed(username),
+            posts -> feedHydrationService.hydrateWithPreview(posts, commentPreviewSize));
+    }
+    
+    public FeedPage getFeedPage(String username, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        // Fetch one extra row to learn whether another page exists without a COUNT query.
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        
+        PageCursor position = (cursor == null || cursor.isEmpty()) ? null : PageCursor.decode(cursor);
+        
+        List<Post> posts;
+        if (timelineService.servesFromTimeline(username)) {
+            posts = timelineService.readTimeline(username, position, pageSize + 1);
+        } else {
+            posts = position == null ?
+                postRepository.findFeedPage(username, pageRequest) :
+                postRepository.findFeedPageBefore(username, position.getCreatedDate(), position.getId(), pageRequest);
+        }
+        
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = new ArrayList<>(posts.subList(0, pageSize));
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getCreatedDate(), last.getId()).encode();
+        }
+        
+        feedHydrationService.hydrateWithPreview(posts, commentPreviewSize);
+        
+        return new FeedPage(posts, nextCursor);
+    }
+    
+    // Ranked pages are ordered by score rather than time, so like search the cursor is the
+    // offset of the next post. Only the top candidates by stored score are ranked.
+    public FeedPage getRankedPage(String username, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        int offset = decodeOffset(cursor, feedRankingService.getCandidateCount());
+        
+        List<Long> postIds = feedRankingService.rankFeed(username);
+        int end = Math.min(offset + pageSize, postIds.size());
+        List<Post> posts = offset < end ? loadInOrder(postIds.subList(offset, end)) : new ArrayList<>();
+        feedHydrationService.hydrateWithPreview(posts, commentPreviewSize);
+        
+        return new FeedPage(posts, end < postIds.size() ? String.valueOf(end) : null);
+    }
+    
+    public FeedPage getHashtagPage(String tag, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        
+        PageCursor position = (cursor == null || cursor.isEmpty()) ? null : PageCursor.decode(cursor);
+        
+        Long hashtagId = hashtagService.findId(tag);
+        if (hashtagId == null) {
+            return new FeedPage(new ArrayList<>(), null);
+        }
+        
+        List<Long> postIds = position == null ?
+            hashtagPostEntryRepository.findPostIds(hashtagId, pageRequest) :
+            hashtagPostEntryRepository.findPostIdsBefore(hashtagId, position.getCreatedDate(), position.getId(), pageRequest);
+        
+        boolean hasMore = postIds.size() > pageSize;
+        if (hasMore) {
+            postIds = postIds.subList(0, pageSize);
+        }
+        
+        List<Post> posts = loadInOrder(postIds);
+        
+        String nextCursor = null;
+        if (hasMore && !posts.isEmpty()) {
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedDate(), last.getId()).encode();
+        }
+        
+        feedHydrationService.hydrateWithPreview(posts, commentPreviewSize);
+        
+        return new FeedPage(posts, nextCursor);
+    }
+    
+    // Search pages are ranked by relevance rather than time, so the cursor is the offset of the
+    // next hit. Deep pages are capped because every page re-runs the search from the top.
+    public FeedPage getSearchPage(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        
+        int pageSize = resolvePageSize(limit);
+        int offset = decodeOffset(cursor, MAX_SEARCH_OFFSET);
+        
+        List<Long> postIds = postSearchService.search(query, offset, pageSize + 1);
+        boolean hasMore = postIds.size() > pageSize && offset + pageSize < MAX_SEARCH_OFFSET;
+        if (postIds.size() > pageSize) {
+            postIds = postIds.subList(0, pageSize);
+        }
+        
+        List<Post> posts = loadInOrder(postIds);
+        feedHydrationService.hydrateWithPreview(posts, commentPreviewSize);
+        
+        return new FeedPage(posts, hasMore ? String.valueOf(offset + pageSize) : null);
+    }
+    
+    private List<Post> loadInOrder(List<Long> postIds) {
+        Map<Long, Post> postsById = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIds)) {
+            postsById.put(post.getId(), post);
+        }
+        
+        List<Post> posts = new ArrayList<>();
+        for (Long postId : postIds) {
+            Post post = postsById.get(postId);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+    
+    private int decodeOffset(String cursor, int maxOffset) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset < 0 || offset >= maxOffset) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.repository.ConnectionRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version stamps behind the feed and profile-post ETags. A write touching an author's posts
+// stamps that author's content version with a fresh value from one global counter, and a
+// connection change stamps the feed version of both users. A feed's tag is the newest of the
+// viewer's feed stamp and the content stamps of everyone in the feed, so writers never look up
+// who is watching. Stamps are applied after the surrounding transaction commits, so a reader
+// never caches pre-commit data under a new tag, and the ETag carries a per-process epoch so
+// versions that restart from zero never match an older tag.
+@Service
+public class FeedVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+
+    private final Map<String, Long> feedVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> contentVersions = new ConcurrentHashMap<>();
+
+    // Each viewer's connections as of their feed stamp; reloaded once the stamp moves.
+    private final Map<String, FeedAuthors> authorsByViewer = new ConcurrentHashMap<>();
+
+    private record FeedAuthors(long feedVersion, List<String> usernames) {}
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    public String feedETag(String username) {
+        long feedVersion = feedVersions.getOrDefault(username, 0L);
+        FeedAuthors authors = authorsByViewer.get(username);
+        if (authors == null || authors.feedVersion() != feedVersion) {
+            authors = new FeedAuthors(feedVersion, connectionRepository.findConnectedUsernames(username));
+            authorsByViewer.put(username, authors);
+        }
+
+        long version = Math.max(feedVersion, contentVersions.getOrDefault(username, 0L));
+        for (String author : authors.usernames()) {
+            version = Math.max(version, contentVersions.getOrDefault(author, 0L));
+        }
+        return epoch + "-" + version;
+    }
+
+    public String postsETag(String username) {
+        return epoch + "-" + contentVersions.getOrDefault(username, 0L);
+    }
+
+    public void onAuthorActivity(String author) {
+        onAuthorsActivity(List.of(author));
+    }
+
+    public void onAuthorsActivity(Collection<String> authors) {
+        if (authors.isEmpty()) {
+            return;
+        }
+
+        List<String> stamped = new ArrayList<>(authors);
+        AfterCommit.run(() -> {
+            long stamp = counter.incrementAndGet();
+            for (String author : stamped) {
+                contentVersions.put(author, stamp);
+            }
+        });
+    }
+
+    public void onConnectionChanged(String username1, String username2) {
+        AfterCommit.run(() -> {
+            long stamp = counter.incrementAndGet();
+            feedVersions.put(username1, stamp);
+            feedVersions.put(username2, stamp);
+        });
+    }
+}
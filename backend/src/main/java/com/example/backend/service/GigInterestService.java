@@ -1,6 +1,7 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.UserInterestDTO;
+import com.example.backend.dto.UserSummary;
 import com.example.backend.model.Gig;
 import com.example.backend.model.GigInterest;
 import com.example.backend.model.Users;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class GigInterestService {
@@ -21,12 +23,15 @@ public class GigInterestService {
     private final GigInterestRepository gigInterestRepository;
     private final UserRepository userRepository;
     private final GigService gigService;
+    private final UserSummaryCache userSummaryCache;
     
     @Autowired
-    public GigInterestService(GigInterestRepository gigInterestRepository, UserRepository userRepository, @Lazy GigService gigService) {
+    public GigInterestService(GigInterestRepository gigInterestRepository, UserRepository userRepository, @Lazy GigService gigService,
+                              UserSummaryCache userSummaryCache) {
         this.gigInterestRepository = gigInterestRepository;
         this.userRepository = userRepository;
         this.gigService = gigService;
+        this.userSummaryCache = userSummaryCache;
     }
     
     @Transactional
@@ -86,15 +91,21 @@ public class GigInterestService {
         List<GigInterest> interests = gigInterestRepository.findByGigId(gigId);
         List<UserInterestDTO> interestedUsers = new ArrayList<>();
         
+        List<String> usernames = new ArrayList<>();
+        for (GigInterest interest : interests) {
+            usernames.add(interest.getUsername());
+        }
+        Map<String, UserSummary> usersByUsername = userSummaryCache.getAll(usernames);
+        
         for (GigInterest interest : interests) {
             String username = interest.getUsername();
-            Users user = userRepository.findByUsername(username);
+            UserSummary user = usersByUsername.get(username);
             
             if (user != null) {
                 UserInterestDTO dto = new UserInterestDTO();
                 dto.setUsername(username);
-                dto.setName(user.getFirstName() + " " + user.getLastName());
-                dto.setProfilePhoto(user.getProfilePhoto());
+                dto.setName(user.name());
+                dto.setProfilePhoto(user.profilePhoto());
                 dto.setCreatedDate(interest.getCreatedDate());
                 dto.setStatus(interest.getStatus());
                 interestedUsers.add(dto);
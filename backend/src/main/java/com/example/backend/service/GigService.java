@@ -1,16 +1,19 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.UserSummary;
 import com.example.backend.model.Gig;
-import com.example.backend.model.Users;
 import com.example.backend.repository.GigRepository;
-import com.example.backend.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,15 +23,22 @@ public class GigService {
     private GigRepository gigRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserSummaryCache userSummaryCache;
     
     @Autowired
     private GigInterestService gigInterestService;
     
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+    
     public List<Gig> getAllGigs() {
         return gigRepository.findByOrderByCreatedAtDesc();
     }
     
+    public StreamingResponseBody streamAllGigs() {
+        return jsonStreamingService.streamArray(gigRepository::streamByOrderByCreatedAtDesc, this::enrichGigsWithUserData);
+    }
+    
     public List<Gig> getGigsByUsername(String username) {
         return gigRepository.findByUsername(username);
     }
@@ -105,17 +115,31 @@ public class GigService {
     }
     
     public void enrichGigsWithUserData(List<Gig> gigs) {
+        if (gigs.isEmpty()) {
+            return;
+        }
+        
+        Set<String> usernames = new HashSet<>();
+        for (Gig gig : gigs) {
+            usernames.add(gig.getUsername());
+        }
+        
+        Map<String, UserSummary> usersByUsername = userSummaryCache.getAll(usernames);
         for (Gig gig : gigs) {
-            enrichGigWithUserData(gig);
+            UserSummary user = usersByUsername.get(gig.getUsername());
+            if (user != null) {
+                gig.setUserFullName(user.name());
+                gig.setUserProfilePhoto(user.profilePhoto());
+            }
         }
     }
 
     public void enrichGigWithUserData(Gig gig) {
-        Users user = userRepository.findByUsername(gig.getUsername());
+        UserSummary user = userSummaryCache.get(gig.getUsername());
         
         if (user != null) {
-            gig.setUserFullName(user.getFirstName() + " " + user.getLastName());
-            gig.setUserProfilePhoto(user.getProfilePhoto());
+            gig.setUserFullName(user.name());
+            gig.setUserProfilePhoto(user.profilePhoto());
         }
     }
 
@@ -0,0 +1,162 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.Hashtag;
+import com.example.backend.model.HashtagPostEntry;
+import com.example.backend.model.Post;
+import com.example.backend.repository.HashtagPostEntryRepository;
+import com.example.backend.repository.HashtagRepository;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+@Service
+public class HashtagService {
+    
+    private static final Logger log = Logger.getLogger(HashtagService.class.getName());
+    
+    @Value("${hashtags.intern-cache-size:10000}")
+    private int internCacheSize;
+    
+    @Autowired
+    private HashtagRepository hashtagRepository;
+    
+    @Autowired
+    private HashtagPostEntryRepository hashtagPostEntryRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Bounded LRU of hashtag name -> id. Hashtags are never renamed or deleted, so entries
+    // never go stale and hot tags resolve without touching the database.
+    private Map<String, Long> internCache;
+    
+    @PostConstruct
+    public void init() {
+        internCache = Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > internCacheSize;
+            }
+        });
+    }
+    
+    // Cached tags come back as plain instances carrying their id and name, which is all the
+    // post_hashtags link and the response need, so they cost no query. Only tags missing from the
+    // cache are inserted if new and then loaded, in one statement each.
+    @Transactional
+    public Set<Hashtag> resolve(Collection<String> names) {
+        Set<Hashtag> hashtags = new HashSet<>();
+        if (names == null || names.isEmpty()) {
+            return hashtags;
+        }
+        
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                wanted.add(name);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return hashtags;
+        }
+        
+        Set<String> misses = new LinkedHashSet<>();
+        for (String name : wanted) {
+            Long id = internCache.get(name);
+            if (id != null) {
+                Hashtag hashtag = new Hashtag(name);
+                hashtag.setId(id);
+                hashtags.add(hashtag);
+            } else {
+                misses.add(name);
+            }
+        }
+        if (misses.isEmpty()) {
+            return hashtags;
+        }
+        
+        // The unique constraint on hashtags.name turns the insert of a tag that already
+        // exists, or that a concurrent post just created, into a no-op.
+        List<Object[]> args = new ArrayList<>();
+        for (String name : misses) {
+            args.add(new Object[] { name });
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO hashtags (name) VALUES (?)", args);
+        
+        for (Hashtag hashtag : hashtagRepository.findByNameIn(misses)) {
+            intern(hashtag);
+            hashtags.add(hashtag);
+        }
+        return hashtags;
+    }
+    
+    public Long findId(String name) {
+        Long id = internCache.get(name);
+        if (id != null) {
+            return id;
+        }
+        
+        Hashtag hashtag = hashtagRepository.findByName(name);
+        if (hashtag == null) {
+            return null;
+        }
+        intern(hashtag);
+        return hashtag.getId();
+    }
+    
+    // Copies (hashtag, created date, post) into hashtag_post_index so a tag page is a range
+    // scan over one index instead of a join through post_hashtags and a sort over post.
+    @Transactional
+    public void indexPost(Post post) {
+        if (post.getHashtags() == null || post.getHashtags().isEmpty()) {
+            return;
+        }
+        
+        List<HashtagPostEntry> entries = new ArrayList<>();
+        for (Hashtag hashtag : post.getHashtags()) {
+            entries.add(new HashtagPostEntry(hashtag.getId(), post));
+        }
+        hashtagPostEntryRepository.saveAll(entries);
+    }
+    
+    @Transactional
+    public void onPostsDeleted(Collection<Long> postIds) {
+        hashtagPostEntryRepository.deleteByPostIds(postIds);
+    }
+    
+    // Posts created before the index table existed are copied in once, the first time the
+    // application starts with an empty index.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIndex() {
+        if (hashtagPostEntryRepository.count() > 0) {
+            return;
+        }
+        
+        int copied = hashtagPostEntryRepository.backfill();
+        if (copied > 0) {
+            log.info("Backfilled hashtag_post_index with " + copied + " rows");
+        }
+    }
+    
+    private void intern(Hashtag hashtag) {
+        internCache.put(hashtag.getName(), hashtag.getId());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes a JPA result stream out as a JSON array while it is being read. Rows are handled in
+// chunks: each chunk can be enriched with batched lookups, is serialized, and is then evicted
+// from the persistence context, so memory per request is bounded by the chunk size rather than
+// the size of the result.
+@Service
+public class JsonStreamingService {
+
+    @Value("${streaming.chunk-size:100}")
+    private int chunkSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody streamArray(Supplier<Stream<T>> source) {
+        return streamArray(source, chunk -> {});
+    }
+
+    // The body runs on an async request thread after the controller returns, so the stream
+    // is opened inside its own read-only transaction there.
+    public <T> StreamingResponseBody streamArray(Supplier<Stream<T>> source, Consumer<List<T>> enrichChunk) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+
+                List<T> chunk = new ArrayList<>(chunkSize);
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(generator, chunk, enrichChunk);
+                    }
+                }
+                writeChunk(generator, chunk, enrichChunk);
+
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> void writeChunk(JsonGenerator generator, List<T> chunk, Consumer<List<T>> enrichChunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        enrichChunk.accept(chunk);
+        for (T row : chunk) {
+            generator.writeObject(row);
+        }
+        generator.flush();
+
+        chunk.clear();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,585 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.model.PostLike;
+import com.example.backend.repository.CommentLikeRepository;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostLikeRepository;
+import com.example.backend.repository.PostRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Write-behind buffer for post and comment like toggles. Each toggle only records the user's
+// desired state in a lock-striped map (last writer wins) and returns the projected count; the
+// buffer is written to post_likes/comment_likes and the counter columns in JDBC batches on a
+// short interval, when it grows past a size threshold, and once more on shutdown.
+@Service
+public class LikeWriteBuffer {
+
+    private static final Logger log = Logger.getLogger(LikeWriteBuffer.class.getName());
+
+    public enum Target { POST, COMMENT }
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${likes.write-behind.stripes:16}")
+    private int stripeCount;
+
+    @Value("${likes.write-behind.max-buffered:5000}")
+    private int maxBuffered;
+
+    @Value("${likes.write-behind.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private CommentLikeRepository commentLikeRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private FeedRankingService feedRankingService;
+
+    @Autowired
+    private FeedVersionService feedVersionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Stripe[] stripes;
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Flushes run on their own thread rather than the shared scheduler, so a long scheduled job
+    // elsewhere never holds buffered likes back.
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-buffer-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        Gauge.builder("likes.buffer.depth", depth, AtomicInteger::get)
+            .description("Like toggles waiting to be flushed")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("likes.buffer.flush")
+            .description("Time taken to flush buffered like toggles")
+            .register(meterRegistry);
+        if (enabled) {
+            flushExecutor.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int toggle(Target target, Long targetId, String username, boolean isLiked) {
+        LikeKey key = new LikeKey(target, targetId, username);
+        TargetKey targetKey = key.targetKey();
+        Stripe stripe = stripeFor(targetKey);
+
+        while (true) {
+            long generation;
+            stripe.lock.lock();
+            try {
+                // The target is being deleted; there is nothing left to like.
+                if (stripe.discarded.contains(targetKey)) {
+                    break;
+                }
+                LikeState state = stripe.pending.get(key);
+                if (state == null) {
+                    LikeState inFlight = stripe.inFlight.get(key);
+                    if (inFlight != null) {
+                        state = new LikeState(inFlight.desired);
+                        stripe.pending.put(key, state);
+                        depth.incrementAndGet();
+                    }
+                }
+                if (state != null) {
+                    applyToggle(stripe, targetKey, state, isLiked);
+                    break;
+                }
+                generation = stripe.generation;
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            // First toggle for this key: read the stored state without holding the stripe lock,
+            // then retry if a flush or a discard completed in the meantime. Toggles for targets
+            // that no longer exist are not buffered, so a flush never writes orphan likes.
+            boolean exists = targetExists(target, targetId);
+            boolean persisted = exists && isPersisted(target, targetId, username);
+
+            stripe.lock.lock();
+            try {
+                if (stripe.generation == generation && !stripe.pending.containsKey(key)) {
+                    if (exists) {
+                        LikeState state = new LikeState(persisted);
+                        stripe.pending.put(key, state);
+                        depth.incrementAndGet();
+                        applyToggle(stripe, targetKey, state, isLiked);
+                    }
+                    break;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        if (depth.get() >= maxBuffered && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+
+        return projectedCount(target, targetId);
+    }
+
+    public int projectedCount(Target target, Long targetId) {
+        Integer stored = target == Target.POST ?
+            postRepository.findLikeCountById(targetId) :
+            commentRepository.findLikeCountById(targetId);
+        int count = stored != null ? stored : 0;
+
+        TargetKey targetKey = new TargetKey(target, targetId);
+        Stripe stripe = stripeFor(targetKey);
+        stripe.lock.lock();
+        try {
+            count += stripe.pendingDeltas.getOrDefault(targetKey, 0);
+            count += stripe.inFlightDeltas.getOrDefault(targetKey, 0);
+        } finally {
+            stripe.lock.unlock();
+        }
+        return Math.max(count, 0);
+    }
+
+    // Applies buffered toggles for one user on top of the ids read from the database.
+    public List<Long> overlayLikedIds(Target target, String username, List<Long> storedIds) {
+        if (!enabled) {
+            return storedIds;
+        }
+
+        Set<Long> likedIds = new LinkedHashSet<>(storedIds);
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                overlay(stripe.inFlight, target, username, likedIds);
+                overlay(stripe.pending, target, username, likedIds);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return new ArrayList<>(likedIds);
+    }
+
+    // Called before the target's likes are deleted. Holding the flush monitor waits out a flush
+    // that is already writing the target's likes, so they are committed before the caller deletes
+    // them. Until the caller's transaction ends the target is tombstoned, keeping new toggles out
+    // of the buffer; after that the target no longer exists and toggles skip it anyway.
+    public void discard(Target target, Long targetId) {
+        if (!enabled) {
+            return;
+        }
+
+        TargetKey targetKey = new TargetKey(target, targetId);
+        Stripe stripe = stripeFor(targetKey);
+        synchronized (this) {
+            stripe.lock.lock();
+            try {
+                int before = stripe.pending.size();
+                stripe.pending.keySet().removeIf(key -> key.targetKey().equals(targetKey));
+                depth.addAndGet(stripe.pending.size() - before);
+                stripe.pendingDeltas.remove(targetKey);
+                stripe.discarded.add(targetKey);
+                stripe.generation++;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        Runnable release = () -> {
+            stripe.lock.lock();
+            try {
+                stripe.discarded.remove(targetKey);
+            } finally {
+                stripe.lock.unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release.run();
+            }
+        });
+    }
+
+    // An exception escaping a periodic task would cancel all its later runs.
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Scheduled like flush failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (enabled) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        long start = System.nanoTime();
+        List<Map.Entry<LikeKey, LikeState>> changes = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                stripe.inFlight = stripe.pending;
+                stripe.inFlightDeltas = stripe.pendingDeltas;
+                stripe.pending = new HashMap<>();
+                stripe.pendingDeltas = new HashMap<>();
+                depth.addAndGet(-stripe.inFlight.size());
+                for (Map.Entry<LikeKey, LikeState> entry : stripe.inFlight.entrySet()) {
+                    if (entry.getValue().desired != entry.getValue().persisted) {
+                        changes.add(entry);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        boolean written = true;
+        try {
+            if (!changes.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> write(changes));
+            }
+        } catch (RuntimeException e) {
+            written = false;
+            log.log(Level.WARNING, "Failed to flush " + changes.size() + " buffered likes, will retry", e);
+        } finally {
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (!written) {
+                        requeue(stripe);
+                    }
+                    stripe.inFlight = new HashMap<>();
+                    stripe.inFlightDeltas = new HashMap<>();
+                    stripe.generation++;
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(List<Map.Entry<LikeKey, LikeState>> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> authors = new HashSet<>();
+        for (Target target : Target.values()) {
+            String likeTable = target == Target.POST ? "post_likes" : "comment_likes";
+            String idColumn = target == Target.POST ? "post_id" : "comment_id";
+            String counterTable = target == Target.POST ? "post" : "comments";
+
+            List<LikeKey> inserts = new ArrayList<>();
+            List<LikeKey> deletes = new ArrayList<>();
+            for (Map.Entry<LikeKey, LikeState> entry : changes) {
+                if (entry.getKey().target == target) {
+                    (entry.getValue().desired ? inserts : deletes).add(entry.getKey());
+                }
+            }
+
+            Map<Long, Integer> deltas = new HashMap<>();
+            if (!inserts.isEmpty()) {
+                List<Object[]> args = new ArrayList<>();
+                for (LikeKey key : inserts) {
+                    args.add(new Object[] { key.targetId, key.username, now });
+                }
+                int[] results = jdbcTemplate.batchUpdate(
+                    "INSERT IGNORE INTO " + likeTable + " (" + idColumn + ", username, created_date) VALUES (?, ?, ?)", args);
+                collectDeltas(inserts, results, 1, deltas);
+                if (target == Target.POST) {
+                    feedRankingService.recordLikes(collectLikers(inserts, results), now.toLocalDateTime());
+                }
+            }
+            if (!deletes.isEmpty()) {
+                // The rows' dates are needed to take their weight back out of the ranking.
+                Map<LikeKey, PostLike> deletedLikes = target == Target.POST ? loadPostLikes(deletes) : Map.of();
+                List<Object[]> args = new ArrayList<>();
+                for (LikeKey key : deletes) {
+                    args.add(new Object[] { key.targetId, key.username });
+                }
+                int[] results = jdbcTemplate.batchUpdate(
+                    "DELETE FROM " + likeTable + " WHERE " + idColumn + " = ? AND username = ?", args);
+                collectDeltas(deletes, results, -1, deltas);
+                if (target == Target.POST) {
+                    List<PostLike> removed = new ArrayList<>();
+                    for (int i = 0; i < deletes.size(); i++) {
+                        PostLike like = deletedLikes.get(deletes.get(i));
+                        if (like != null && (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO)) {
+                            removed.add(like);
+                        }
+                    }
+                    feedRankingService.removeLikes(removed);
+                }
+            }
+
+            List<Object[]> counterArgs = new ArrayList<>();
+            deltas.forEach((targetId, delta) -> {
+                if (delta != 0) {
+                    counterArgs.add(new Object[] { delta, targetId });
+                }
+            });
+            if (!counterArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE " + counterTable + " SET like_count = like_count + ? WHERE id = ?", counterArgs);
+                authors.addAll(authorsOf(target, deltas.keySet()));
+            }
+        }
+
+        // The counters feeds show only change here, so this is when cached feeds go stale.
+        feedVersionService.onAuthorsActivity(authors);
+    }
+
+    private List<String> authorsOf(Target target, Collection<Long> targetIds) {
+        if (target == Target.COMMENT) {
+            return commentRepository.findPostAuthorsByIds(targetIds);
+        }
+        List<String> authors = new ArrayList<>();
+        for (Object[] row : postRepository.findAuthorsByIds(targetIds)) {
+            authors.add((String) row[1]);
+        }
+        return authors;
+    }
+
+    private void collectDeltas(List<LikeKey> keys, int[] results, int direction, Map<Long, Integer> deltas) {
+        for (int i = 0; i < keys.size(); i++) {
+            // Drivers that rewrite batches report SUCCESS_NO_INFO; the reconciliation job
+            // corrects the counter if such a row turns out to have been a no-op.
+            if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+                deltas.merge(keys.get(i).targetId, direction, Integer::sum);
+            }
+        }
+    }
+
+    private Map<Long, List<String>> collectLikers(List<LikeKey> keys, int[] results) {
+        Map<Long, List<String>> likersByTargetId = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+                likersByTargetId.computeIfAbsent(keys.get(i).targetId, k -> new ArrayList<>()).add(keys.get(i).username);
+            }
+        }
+        return likersByTargetId;
+    }
+
+    private Map<LikeKey, PostLike> loadPostLikes(List<LikeKey> keys) {
+        Set<Long> postIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (LikeKey key : keys) {
+            postIds.add(key.targetId);
+            usernames.add(key.username);
+        }
+        Set<LikeKey> wanted = new HashSet<>(keys);
+        Map<LikeKey, PostLike> likes = new HashMap<>();
+        for (PostLike like : postLikeRepository.findByPostIdInAndUsernameIn(postIds, usernames)) {
+            LikeKey key = new LikeKey(Target.POST, like.getPostId(), like.getUsername());
+            if (wanted.contains(key)) {
+                likes.put(key, like);
+            }
+        }
+        return likes;
+    }
+
+    private void requeue(Stripe stripe) {
+        for (Map.Entry<LikeKey, LikeState> entry : stripe.inFlight.entrySet()) {
+            LikeState newer = stripe.pending.get(entry.getKey());
+            if (newer != null) {
+                newer.persisted = entry.getValue().persisted;
+            } else {
+                stripe.pending.put(entry.getKey(), entry.getValue());
+                depth.incrementAndGet();
+            }
+        }
+        stripe.inFlightDeltas.forEach((targetKey, delta) ->
+            stripe.pendingDeltas.merge(targetKey, delta, Integer::sum));
+    }
+
+    private void applyToggle(Stripe stripe, TargetKey targetKey, LikeState state, boolean isLiked) {
+        int delta = (isLiked ? 1 : 0) - (state.desired ? 1 : 0);
+        state.desired = isLiked;
+        if (delta != 0) {
+            stripe.pendingDeltas.merge(targetKey, delta, Integer::sum);
+        }
+    }
+
+    private void overlay(Map<LikeKey, LikeState> entries, Target target, String username, Set<Long> likedIds) {
+        for (Map.Entry<LikeKey, LikeState> entry : entries.entrySet()) {
+            LikeKey key = entry.getKey();
+            if (key.target == target && key.username.equals(username)) {
+                if (entry.getValue().desired) {
+                    likedIds.add(key.targetId);
+                } else {
+                    likedIds.remove(key.targetId);
+                }
+            }
+        }
+    }
+
+    private boolean targetExists(Target target, Long targetId) {
+        return target == Target.POST ? postRepository.existsById(targetId) : commentRepository.existsById(targetId);
+    }
+
+    private boolean isPersisted(Target target, Long targetId, String username) {
+        return target == Target.POST ?
+            postLikeRepository.findByPostIdAndUsername(targetId, username) != null :
+            commentLikeRepository.findByCommentIdAndUsername(targetId, username) != null;
+    }
+
+    private Stripe stripeFor(TargetKey targetKey) {
+        return stripes[Math.floorMod(targetKey.hashCode(), stripes.length)];
+    }
+
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<LikeKey, LikeState> pending = new HashMap<>();
+        private Map<LikeKey, LikeState> inFlight = new HashMap<>();
+        private Map<TargetKey, Integer> pendingDeltas = new HashMap<>();
+        private Map<TargetKey, Integer> inFlightDeltas = new HashMap<>();
+        private final Set<TargetKey> discarded = new HashSet<>();
+        private long generation;
+    }
+
+    private static class LikeState {
+        private boolean persisted;
+        private boolean desired;
+
+        LikeState(boolean persisted) {
+            this.persisted = persisted;
+            this.desired = persisted;
+        }
+    }
+
+    private static class TargetKey {
+        private final Target target;
+        private final Long targetId;
+
+        TargetKey(Target target, Long targetId) {
+            this.target = target;
+            this.targetId = targetId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TargetKey)) return false;
+            TargetKey other = (TargetKey) o;
+            return target == other.target && targetId.equals(other.targetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, targetId);
+        }
+    }
+
+    private static class LikeKey {
+        private final Target target;
+        private final Long targetId;
+        private final String username;
+
+        LikeKey(Target target, Long targetId, String username) {
+            this.target = target;
+            this.targetId = targetId;
+            this.username = username;
+        }
+
+        TargetKey targetKey() {
+            return new TargetKey(target, targetId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LikeKey)) return false;
+            LikeKey other = (LikeKey) o;
+            return target == other.target && targetId.equals(other.targetId) && username.equals(other.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, targetId, username);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.backend.service;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.repository.CommentLikeRepository;
+import com.example.backend.repository.PostLikeRepository;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Per-user sets of liked post and comment ids held as compressed Roaring bitmaps, so "which of
+// these did I like" is answered in memory for any number of ids. A user's set is loaded from the
+// database (plus any buffered toggles) the first time it is needed, kept in a bounded LRU, and
+// updated in place by every like toggle from then on.
+@Service
+public class LikedSetCache {
+
+    @Value("${likes.liked-set.max-users:10000}")
+    private int maxUsers;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private CommentLikeRepository commentLikeRepository;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    private Map<Key, LikedSet> sets;
+
+    @PostConstruct
+    public void init() {
+        sets = new LinkedHashMap<Key, LikedSet>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, LikedSet> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    // Bit i of the result is set when the user likes ids.get(i).
+    public BitSet check(LikeWriteBuffer.Target target, String username, List<Long> ids) {
+        LikedSet likedSet = load(new Key(target, username));
+        BitSet liked = new BitSet(ids.size());
+        synchronized (likedSet) {
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                if (id != null && likedSet.ids.contains(id)) {
+                    liked.set(i);
+                }
+            }
+        }
+        return liked;
+    }
+
+    // Applied once the toggle commits. Only sets that are already loaded are updated; others pick
+    // the change up from the database when they load.
+    public void onToggle(LikeWriteBuffer.Target target, String username, Long id, boolean liked) {
+        AfterCommit.run(() -> {
+            LikedSet likedSet;
+            synchronized (sets) {
+                likedSet = sets.get(new Key(target, username));
+            }
+            if (likedSet == null) {
+                return;
+            }
+
+            synchronized (likedSet) {
+                if (!likedSet.loaded) {
+                    return;
+                }
+                if (liked) {
+                    likedSet.ids.addLong(id);
+                } else {
+                    likedSet.ids.removeLong(id);
+                }
+            }
+        });
+    }
+
+    public void onUserDeleted(String username) {
+        synchronized (sets) {
+            for (LikeWriteBuffer.Target target : LikeWriteBuffer.Target.values()) {
+                sets.remove(new Key(target, username));
+            }
+        }
+    }
+
+    // The set's lock is held while it is read from the database, so a toggle that arrives in the
+    // meantime waits and is then applied on top of the loaded ids.
+    private LikedSet load(Key key) {
+        LikedSet likedSet;
+        synchronized (sets) {
+            likedSet = sets.computeIfAbsent(key, k -> new LikedSet());
+        }
+
+        synchronized (likedSet) {
+            if (!likedSet.loaded) {
+                List<Long> storedIds = key.target == LikeWriteBuffer.Target.POST ?
+                    postLikeRepository.findPostIdsByUsername(key.username) :
+                    commentLikeRepository.findCommentIdsByUsername(key.username);
+                for (Long id : likeWriteBuffer.overlayLikedIds(key.target, key.username, storedIds)) {
+                    likedSet.ids.addLong(id);
+                }
+                likedSet.ids.runOptimize();
+                likedSet.loaded = true;
+            }
+        }
+        return likedSet;
+    }
+
+    private static class LikedSet {
+        private final Roaring64Bitmap ids = new Roaring64Bitmap();
+        private boolean loaded;
+    }
+
+    private static class Key {
+        private final LikeWriteBuffer.Target target;
+        private final String username;
+
+        Key(LikeWriteBuffer.Target target, String username) {
+            this.target = target;
+            this.username = username;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return target == other.target && username.equals(other.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, username);
+        }
+    }
+}
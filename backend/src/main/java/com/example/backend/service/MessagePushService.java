@@ -0,0 +1,37 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.Message;
+
+import java.util.Map;
+
+// Delivers new messages and read receipts to the participants' WebSocket sessions once the
+// write has committed. Users with no open session are skipped by the broker at no cost.
+@Service
+public class MessagePushService {
+
+    private static final String MESSAGES = "/queue/messages";
+    private static final String READ_RECEIPTS = "/queue/read-receipts";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // The sender gets the message too, so their other tabs stay in step.
+    public void pushMessage(Message message) {
+        AfterCommit.run(() -> {
+            messagingTemplate.convertAndSendToUser(message.getToUsername(), MESSAGES, message);
+            if (!message.getFromUsername().equals(message.getToUsername())) {
+                messagingTemplate.convertAndSendToUser(message.getFromUsername(), MESSAGES, message);
+            }
+        });
+    }
+
+    // Tells partner that reader has read everything they sent up to lastReadMessageId.
+    public void pushReadReceipt(String reader, String partner, Long lastReadMessageId) {
+        AfterCommit.run(() -> messagingTemplate.convertAndSendToUser(partner, READ_RECEIPTS,
+            Map.of("reader", reader, "lastReadMessageId", lastReadMessageId)));
+    }
+}
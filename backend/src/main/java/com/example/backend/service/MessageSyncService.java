@@ -0,0 +1,260 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.backend.dto.MessageSync;
+import com.example.backend.model.Message;
+import com.example.backend.repository.MessageRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Long-poll delivery for clients without a WebSocket. The id of the newest message each user
+// sent or received is kept in memory (read from the database once per user), so a sync call
+// with nothing new parks its request in the user's wait queue without a query. A committed
+// send wakes the waiters, which read what is new from the database.
+//
+// Message ids are assigned at insert but become visible at commit, so a lower id can commit
+// after a higher one. Sends are tracked from before their insert until their transaction ends,
+// and no cursor moves past an id that may still commit.
+@Service
+public class MessageSyncService {
+
+    private static final int MAX_SYNC_MESSAGES = 100;
+    private static final int MAX_READ_ATTEMPTS = 3;
+
+    @Value("${messages.sync.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    private final Map<String, Long> latestIdByUser = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Waiter>> waitersByUser = new ConcurrentHashMap<>();
+    private final Map<String, Sends> sendsByUser = new ConcurrentHashMap<>();
+
+    private static class Waiter {
+        private final Long sinceId;
+        private final DeferredResult<MessageSync> result;
+
+        private Waiter(Long sinceId, DeferredResult<MessageSync> result) {
+            this.sinceId = sinceId;
+            this.result = result;
+        }
+    }
+
+    // One participant's view of an open send. Before the insert its id is unknown but will be
+    // above everything already committed, so the participant's cursor is held at that point.
+    private static class InFlight {
+        private final long floor;
+        private volatile long id;
+
+        private InFlight(long floor) {
+            this.floor = floor;
+        }
+
+        private long cap() {
+            return id > 0 ? id - 1 : floor;
+        }
+    }
+
+    // The open sends of one user, and how many have ever begun, so a read can tell whether one
+    // began (and possibly ended) while it ran.
+    private static class Sends {
+        private final Set<InFlight> open = ConcurrentHashMap.newKeySet();
+        private final AtomicLong begun = new AtomicLong();
+    }
+
+    // A send between beginSend and the end of its transaction.
+    public static class PendingSend {
+        private final String fromUsername;
+        private final String toUsername;
+        private final InFlight from;
+        private final InFlight to;
+        private volatile Message message;
+
+        private PendingSend(String fromUsername, String toUsername, InFlight from, InFlight to) {
+            this.fromUsername = fromUsername;
+            this.toUsername = toUsername;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // Without a sinceId the call returns at once with the current position to sync from.
+    public DeferredResult<MessageSync> sync(String username, Long sinceId) {
+        long latestId = Math.min(latestId(username), cap(username));
+        DeferredResult<MessageSync> result = new DeferredResult<>(timeoutMs,
+            () -> new MessageSync(List.of(), sinceId != null ? sinceId : latestId));
+
+        if (sinceId == null) {
+            result.setResult(new MessageSync(List.of(), latestId));
+            return result;
+        }
+        if (latestId(username) > sinceId && complete(username, sinceId, result)) {
+            return result;
+        }
+
+        Waiter waiter = new Waiter(sinceId, result);
+        Queue<Waiter> waiters = waitersByUser.computeIfAbsent(username, k -> new ConcurrentLinkedQueue<>());
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+
+        // A message that committed between the check above and joining the queue would
+        // otherwise not wake this request until it times out.
+        if (latestId(username) > sinceId) {
+            complete(username, sinceId, result);
+        }
+        return result;
+    }
+
+    // Must be called inside the sending transaction, before the message is inserted.
+    public PendingSend beginSend(String fromUsername, String toUsername) {
+        InFlight from = track(fromUsername);
+        InFlight to = toUsername.equals(fromUsername) ? from : track(toUsername);
+        PendingSend send = new PendingSend(fromUsername, toUsername, from, to);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finish(send, status == STATUS_COMMITTED);
+                }
+            });
+        }
+        return send;
+    }
+
+    public void onMessageSent(PendingSend send, Message message) {
+        send.message = message;
+        send.from.id = message.getId();
+        send.to.id = message.getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            finish(send, true);
+        }
+    }
+
+    public void onUserDeleted(String username) {
+        latestIdByUser.remove(username);
+    }
+
+    // Added before it is counted: a read that missed it in the open set then sees the count move.
+    private InFlight track(String username) {
+        InFlight inFlight = new InFlight(latestId(username));
+        Sends sends = sends(username);
+        sends.open.add(inFlight);
+        sends.begun.incrementAndGet();
+        return inFlight;
+    }
+
+    private Sends sends(String username) {
+        return sendsByUser.computeIfAbsent(username, k -> new Sends());
+    }
+
+    // Also runs on rollback: the send no longer holds back its participants' cursors, and
+    // waiters behind it may now have messages to collect.
+    private void finish(PendingSend send, boolean committed) {
+        sends(send.fromUsername).open.remove(send.from);
+        sends(send.toUsername).open.remove(send.to);
+
+        Message message = send.message;
+        if (committed && message != null) {
+            latestIdByUser.computeIfPresent(send.fromUsername, (k, latestId) -> Math.max(latestId, message.getId()));
+            latestIdByUser.computeIfPresent(send.toUsername, (k, latestId) -> Math.max(latestId, message.getId()));
+        }
+        notify(send.fromUsername);
+        if (!send.toUsername.equals(send.fromUsername)) {
+            notify(send.toUsername);
+        }
+    }
+
+    private void notify(String username) {
+        Queue<Waiter> waiters = waitersByUser.get(username);
+        if (waiters == null || waiters.isEmpty()) {
+            return;
+        }
+
+        List<Waiter> ahead = new ArrayList<>();
+        Map<Long, MessageSync> syncsBySinceId = new HashMap<>();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            MessageSync sync = syncsBySinceId.computeIfAbsent(waiter.sinceId, sinceId -> readAfter(username, sinceId));
+            if (!sync.messages().isEmpty()) {
+                waiter.result.setResult(sync);
+            } else {
+                ahead.add(waiter);
+            }
+        }
+        waiters.addAll(ahead);
+    }
+
+    private boolean complete(String username, Long sinceId, DeferredResult<MessageSync> result) {
+        MessageSync sync = readAfter(username, sinceId);
+        if (sync.messages().isEmpty()) {
+            return false;
+        }
+        result.setResult(sync);
+        return true;
+    }
+
+    private long latestId(String username) {
+        return latestIdByUser.computeIfAbsent(username, k -> {
+            Long latestId = messageRepository.findLatestIdForParticipant(username);
+            return latestId != null ? latestId : 0L;
+        });
+    }
+
+    // The highest id the user's cursor may reach while sends to or from them are open.
+    private long cap(String username) {
+        return cap(sends(username));
+    }
+
+    private long cap(Sends sends) {
+        long cap = Long.MAX_VALUE;
+        for (InFlight inFlight : sends.open) {
+            cap = Math.min(cap, inFlight.cap());
+        }
+        return cap;
+    }
+
+    // The cap is read before the messages, so it covers every send already open. A send that
+    // began during the query could have taken a lower id and committed in between, so such a
+    // read is retried, and after a few attempts returns nothing; that send's own completion
+    // wakes the waiters again.
+    private MessageSync readAfter(String username, Long sinceId) {
+        Sends sends = sends(username);
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long begun = sends.begun.get();
+            long cap = cap(sends);
+            List<Message> page = messageRepository.findForParticipantAfter(username, sinceId, PageRequest.of(0, MAX_SYNC_MESSAGES));
+            if (sends.begun.get() != begun) {
+                continue;
+            }
+
+            List<Message> messages = new ArrayList<>();
+            for (Message message : page) {
+                if (message.getId() > cap) {
+                    break;
+                }
+                messages.add(message);
+            }
+            Long lastId = messages.isEmpty() ? sinceId : messages.get(messages.size() - 1).getId();
+            return new MessageSync(messages, lastId);
+        }
+        return new MessageSync(List.of(), sinceId);
+    }
+}
@@ -5,6 +5,7 @@ import com.example.backend.repository.NewsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,10 +19,17 @@ public class NewsService {
     @Autowired
     private FileStorageService fileStorageService;
     
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+    
     public List<News> getAllNews() {
         return newsRepository.findAllByOrderByDateDesc();
     }
     
+    public StreamingResponseBody streamAllNews() {
+        return jsonStreamingService.streamArray(newsRepository::streamAllByOrderByDateDesc);
+    }
+    
     public Optional<News> getNewsById(Long id) {
         return newsRepository.findById(id);
     }
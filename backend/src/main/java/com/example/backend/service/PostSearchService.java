@@ -0,0 +1,360 @@
+package com.example.backend.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.Hashtag;
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.HashtagRepository;
+import com.example.backend.repository.PostRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Full-text index over posts kept on local disk with Lucene. Each post is one document holding
+// its text, its hashtags and the text of all its comments; hits are ranked with Lucene's default
+// BM25 similarity. The index is updated from the post and comment write paths and can be rebuilt
+// from the database at startup.
+//
+// Writes are committed to disk periodically, so a crash loses the ones since the last commit.
+// Each commit records the highest post id indexed and when it started; on startup, posts above
+// that id and posts created or commented on since then are reindexed from the database.
+@Service
+public class PostSearchService {
+
+    private static final Logger log = Logger.getLogger(PostSearchService.class.getName());
+
+    private static final String ID = "id";
+    private static final String TEXT = "text";
+    private static final String HASHTAGS = "hashtags";
+    private static final String COMMENTS = "comments";
+
+    private static final int MAX_QUERY_TERMS = 32;
+
+    private static final String MAX_POST_ID = "maxPostId";
+    private static final String COMMITTED_AT = "committedAt";
+
+    // Covers writes that were dated before a commit started but only reached the index after
+    // it, such as a comment whose transaction was still open.
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    @Value("${search.index-dir:./search-index}")
+    private String indexDir;
+
+    @Value("${search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private HashtagRepository hashtagRepository;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private final AtomicLong maxIndexedPostId = new AtomicLong();
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    // An index committed before commits recorded their position can't be caught up, and is
+    // rebuilt once.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        Map<String, String> commitData = new HashMap<>();
+        Iterable<Map.Entry<String, String>> liveCommitData = indexWriter.getLiveCommitData();
+        if (liveCommitData != null) {
+            liveCommitData.forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+
+        if (rebuildOnStartup || indexWriter.getDocStats().numDocs == 0 || !commitData.containsKey(MAX_POST_ID)) {
+            rebuild();
+        } else {
+            catchUp(Long.parseLong(commitData.get(MAX_POST_ID)), LocalDateTime.parse(commitData.get(COMMITTED_AT)));
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            indexWriter.deleteAll();
+            maxIndexedPostId.set(0);
+
+            int indexed = 0;
+            Long afterId = 0L;
+            List<Object[]> batch;
+            do {
+                batch = postRepository.findTextsAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+                if (!batch.isEmpty()) {
+                    writeDocuments(batch);
+                    afterId = (Long) batch.get(batch.size() - 1)[0];
+                    indexed += batch.size();
+                }
+            } while (batch.size() == rebuildBatchSize);
+
+            commitWithPosition();
+            searcherManager.maybeRefresh();
+            log.info("Rebuilt search index with " + indexed + " posts");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void catchUp(long maxPostId, LocalDateTime committedAt) {
+        maxIndexedPostId.accumulateAndGet(maxPostId, Math::max);
+        LocalDateTime since = committedAt.minus(CATCH_UP_MARGIN);
+
+        Set<Long> postIds = new LinkedHashSet<>(postRepository.findIdsAfterOrCreatedSince(maxPostId, since));
+        postIds.addAll(commentRepository.findPostIdsCommentedSince(since));
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Long> ids = new ArrayList<>(postIds);
+            for (int from = 0; from < ids.size(); from += rebuildBatchSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + rebuildBatchSize, ids.size()));
+                writeDocuments(postRepository.findTextsByIds(batch));
+            }
+
+            commitWithPosition();
+            searcherManager.maybeRefresh();
+            log.info("Caught up the search index with " + ids.size() + " posts changed since " + committedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A new post has no comments yet, so its document is built from the entity alone.
+    public void indexPost(Post post) {
+        List<String> hashtags = new ArrayList<>();
+        if (post.getHashtags() != null) {
+            for (Hashtag hashtag : post.getHashtags()) {
+                hashtags.add(hashtag.getName());
+            }
+        }
+
+        try {
+            indexWriter.updateDocument(new Term(ID, post.getId().toString()),
+                toDocument(post.getId(), post.getText(), hashtags, Collections.emptyList()));
+            maxIndexedPostId.accumulateAndGet(post.getId(), Math::max);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to index post " + post.getId(), e);
+        }
+    }
+
+    public void reindexPost(Long postId) {
+        try {
+            writeDocuments(postRepository.findTextsByIds(List.of(postId)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to reindex post " + postId, e);
+        }
+    }
+
+    public void removePosts(Collection<Long> postIds) {
+        List<Term> terms = new ArrayList<>();
+        for (Long postId : postIds) {
+            terms.add(new Term(ID, postId.toString()));
+        }
+
+        try {
+            indexWriter.deleteDocuments(terms.toArray(new Term[0]));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to remove posts " + postIds + " from the search index", e);
+        }
+    }
+
+    // Returns up to count post ids in relevance order, skipping the first offset hits.
+    public List<Long> search(String queryText, int offset, int count) {
+        List<Long> postIds = new ArrayList<>();
+        BooleanQuery query = buildQuery(queryText);
+        if (query == null) {
+            return postIds;
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query, offset + count).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                for (int i = offset; i < hits.length; i++) {
+                    postIds.add(Long.valueOf(storedFields.document(hits[i].doc).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return postIds;
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:60000}")
+    public void commit() {
+        if (!indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+
+        try {
+            commitWithPosition();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to commit the search index", e);
+        }
+    }
+
+    // Both values are read before the commit, so everything they cover is in it.
+    private void commitWithPosition() throws IOException {
+        Map<String, String> commitData = new HashMap<>();
+        commitData.put(MAX_POST_ID, String.valueOf(maxIndexedPostId.get()));
+        commitData.put(COMMITTED_AT, LocalDateTime.now().toString());
+        indexWriter.setLiveCommitData(commitData.entrySet());
+        indexWriter.commit();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private void writeDocuments(List<Object[]> postTexts) throws IOException {
+        if (postTexts.isEmpty()) {
+            return;
+        }
+
+        List<Long> postIds = new ArrayList<>();
+        for (Object[] row : postTexts) {
+            postIds.add((Long) row[0]);
+        }
+
+        Map<Long, List<String>> hashtagsByPostId = groupByPostId(hashtagRepository.findNamesByPostIds(postIds));
+        Map<Long, List<String>> commentsByPostId = groupByPostId(commentRepository.findTextsByPostIds(postIds));
+
+        for (Object[] row : postTexts) {
+            Long postId = (Long) row[0];
+            indexWriter.updateDocument(new Term(ID, postId.toString()), toDocument(postId, (String) row[1],
+                hashtagsByPostId.getOrDefault(postId, Collections.emptyList()),
+                commentsByPostId.getOrDefault(postId, Collections.emptyList())));
+            maxIndexedPostId.accumulateAndGet(postId, Math::max);
+        }
+    }
+
+    private Map<Long, List<String>> groupByPostId(List<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                grouped.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return grouped;
+    }
+
+    private Document toDocument(Long postId, String text, Collection<String> hashtags, Collection<String> comments) {
+        Document document = new Document();
+        document.add(new StringField(ID, postId.toString(), Field.Store.YES));
+        if (text != null) {
+            document.add(new TextField(TEXT, text, Field.Store.NO));
+        }
+        for (String hashtag : hashtags) {
+            document.add(new TextField(HASHTAGS, hashtag, Field.Store.NO));
+        }
+        for (String comment : comments) {
+            document.add(new TextField(COMMENTS, comment, Field.Store.NO));
+        }
+        return document;
+    }
+
+    // Matches any analyzed term in any field; a hashtag match outweighs a text match, which
+    // outweighs a match in the comments.
+    private BooleanQuery buildQuery(String queryText) {
+        Set<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            builder.add(new BoostQuery(new TermQuery(new Term(HASHTAGS, term)), 2.0f), BooleanClause.Occur.SHOULD);
+            builder.add(new TermQuery(new Term(TEXT, term)), BooleanClause.Occur.SHOULD);
+            builder.add(new BoostQuery(new TermQuery(new Term(COMMENTS, term)), 0.5f), BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    private Set<String> analyze(String queryText) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream(TEXT, queryText)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
@@ -1,32 +1,30 @@
 package com.example.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.backend.model.Post;
 import com.example.backend.model.PostLike;
 import com.example.backend.model.Comment;
 import com.example.backend.model.CommentLike;
-import com.example.backend.model.Hashtag;
-import com.example.backend.model.Users; 
 import com.example.backend.dto.PostRequest;
 import com.example.backend.dto.CommentRequest;
+import com.example.backend.dto.LikeCheckRequest;
+import com.example.backend.dto.LikeCheckResult;
 import com.example.backend.repository.PostLikeRepository;
 import com.example.backend.repository.PostRepository;
 import com.example.backend.repository.CommentRepository;
-import com.example.backend.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
 
 import com.example.backend.repository.CommentLikeRepository;
-import com.example.backend.repository.HashtagRepository;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.Set; 
-import java.util.HashSet; 
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class PostService {
@@ -41,14 +39,48 @@ public class PostService {
     private CommentRepository commentRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private CommentLikeRepository commentLikeRepository;
     
     @Autowired
-    private CommentLikeRepository commentLikeRepository;
+    private HashtagService hashtagService;
     
     @Autowired
-    private HashtagRepository hashtagRepository;
+    private TrendingHashtagService trendingHashtagService;
+    
+    @Autowired
+    private PostSearchService postSearchService;
+    
+    @Autowired
+    private FeedVersionService feedVersionService;
+    
+    @Autowired
+    private FeedEventDispatcher feedEventDispatcher;
+    
+    @Autowired
+    private FeedHydrationService feedHydrationService;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+    
+    @Autowired
+    private FeedRankingService feedRankingService;
+    
+    @Autowired
+    private UserSummaryCache userSummaryCache;
+    
+    @Autowired
+    private LikedSetCache likedSetCache;
+    
+    @Value("${likes.check.max-ids:500}")
+    private int maxLikeCheckIds;
     
+    @Value("${feed.comment-preview-size:2}")
+    private int commentPreviewSize;
+    
+    @Transactional
     public Post createPost(PostRequest postRequest) {
         System.out.println("Received post request: " + postRequest.getText() + ", username: " + postRequest.getUsername());
         
@@ -56,33 +88,30 @@ public class PostService {
         post.setText(postRequest.getText());
         
         post.setCreatedDate(LocalDateTime.now());
+        post.setRankScore(feedRankingService.initialScore(post.getCreatedDate()));
         
         if(postRequest.getUsername() != null) {
             post.setUsername(postRequest.getUsername());
         }
         
         if (postRequest.getHashtags() != null && !postRequest.getHashtags().isEmpty()) {
-            Set<Hashtag> hashtagEntities = new HashSet<>();
-            for (String hashtagName : postRequest.getHashtags()) {
-                Hashtag hashtag = hashtagRepository.findByName(hashtagName);
-                if (hashtag == null) {
-                    hashtag = new Hashtag(hashtagName);
-                    hashtag = hashtagRepository.save(hashtag); 
-                }
-                hashtagEntities.add(hashtag);
-            }
-            post.setHashtags(hashtagEntities);
+            post.setHashtags(hashtagService.resolve(postRequest.getHashtags()));
         }
         
         Post savedPost = postRepository.save(post);
+        timelineService.onPostCreated(savedPost);
+        hashtagService.indexPost(savedPost);
+        AfterCommit.run(() -> trendingHashtagService.recordPost(savedPost));
+        AfterCommit.run(() -> postSearchService.indexPost(savedPost));
+        announce(savedPost.getUsername(), "post", Map.of("postId", savedPost.getId(), "author", savedPost.getUsername()));
         System.out.println("Post saved with ID: " + savedPost.getId());
         return savedPost;
     }
 
+    @Transactional
     public Post createPostWithMedia(String text, String username, List<String> hashtags, 
                                     List<String> imageUrls, List<String> videoUrls) {
-        Users user = userRepository.findByUsername(username);
-        if (user == null) {
+        if (userSummaryCache.get(username) == null) {
             throw new RuntimeException("User not found");
         }
         
@@ -90,18 +119,10 @@ public class PostService {
         post.setText(text);
         post.setUsername(username);
         post.setCreatedDate(LocalDateTime.now()); 
+        post.setRankScore(feedRankingService.initialScore(post.getCreatedDate()));
         
         if (hashtags != null && !hashtags.isEmpty()) {
-            Set<Hashtag> hashtagEntities = new HashSet<>();
-            for (String tag : hashtags) {
-                Hashtag hashtag = hashtagRepository.findByName(tag);
-                if (hashtag == null) {
-                    hashtag = new Hashtag(tag);
-                    hashtag = hashtagRepository.save(hashtag); 
-                }
-                hashtagEntities.add(hashtag);
-            }
-            post.setHashtags(hashtagEntities);
+            post.setHashtags(hashtagService.resolve(hashtags));
         }
         
         if (imageUrls != null) {
@@ -112,82 +133,31 @@ public class PostService {
             post.setVideoUrls(videoUrls);
         }
         
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        timelineService.onPostCreated(savedPost);
+        hashtagService.indexPost(savedPost);
+        AfterCommit.run(() -> trendingHashtagService.recordPost(savedPost));
+        AfterCommit.run(() -> postSearchService.indexPost(savedPost));
+        announce(savedPost.getUsername(), "post", Map.of("postId", savedPost.getId(), "author", savedPost.getUsername()));
+        return savedPost;
     }
 
     public List<Post> getPostsByUsername(String username) {
         System.out.println("Fetching posts for username: " + username);
         List<Post> posts = postRepository.findByUsernameOrderByCreatedDateDesc(username);
-        
-        for (Post post : posts) {
-            int count = postLikeRepository.countByPostId(post.getId());
-            post.setLikeCount(count);
-            
-            Users author = userRepository.findByUsername(post.getUsername());
-            if (author != null) {
-                post.setAuthorUsername(post.getUsername());
-                post.setAuthorName(author.getFirstName() + " " + author.getLastName());
-                post.setAuthorProfilePhoto(author.getProfilePhoto());
-                post.setAuthorMajor(author.getMajor());
-            }
-            
-            List<Comment> topLevelComments = commentRepository.findByPostIdAndParentIdIsNullOrderByCreatedDateAsc(post.getId());
-            List<Map<String, Object>> formattedComments = new ArrayList<>();
-            
-            for (Comment comment : topLevelComments) {
-                Map<String, Object> formattedComment = formatComment(comment);
-                
-                List<Comment> replies = commentRepository.findByParentIdOrderByCreatedDateAsc(comment.getId());
-                List<Map<String, Object>> formattedReplies = new ArrayList<>();
-                
-                for (Comment reply : replies) {
-                    formattedReplies.add(formatComment(reply));
-                }
-                
-                if (!formattedReplies.isEmpty()) {
-                    formattedComment.put("replies", formattedReplies);
-                }
-                
-                formattedComments.add(formattedComment);
-            }
-            
-            post.setComments(formattedComments);
-        }
-        
+        feedHydrationService.hydrateWithPreview(posts, commentPreviewSize);
         return posts;
     }
-    
-    private Map<String, Object> formatComment(Comment comment) {
-        Map<String, Object> formattedComment = new HashMap<>();
-        
-        formattedComment.put("id", comment.getId());
-        formattedComment.put("text", comment.getText());
-        formattedComment.put("date", comment.getCreatedDate());
-        
-        int likeCount = commentLikeRepository.countByCommentId(comment.getId());
-        formattedComment.put("likes", likeCount);
-        
-        if (comment.getParentId() != null) {
-            formattedComment.put("parentId", comment.getParentId());
-        }
-        
-        Users user = userRepository.findByUsername(comment.getUsername());
-        Map<String, Object> author = new HashMap<>();
-        if (user != null) {
-            author.put("username", user.getUsername());
-            author.put("name", user.getFirstName() + " " + user.getLastName());
-            author.put("profilePhoto", user.getProfilePhoto());
-        } else {
-            author.put("username", comment.getUsername());
-            author.put("name", "Unknown User");
-            author.put("profilePhoto", null);
-        }
-        formattedComment.put("author", author);
-        
-        return formattedComment;
-    }
 
+    @Transactional
     public int updatePostLike(Long postId, String username, boolean isLiked) {
+        if (likeWriteBuffer.isEnabled()) {
+            int likeCount = likeWriteBuffer.toggle(LikeWriteBuffer.Target.POST, postId, username, isLiked);
+            likedSetCache.onToggle(LikeWriteBuffer.Target.POST, username, postId, isLiked);
+            publishPostActivity(postId, "like", Map.of("postId", postId, "likeCount", likeCount));
+            return likeCount;
+        }
+        
         PostLike existingLike = postLikeRepository.findByPostIdAndUsername(postId, username);
         
         if (isLiked) {
@@ -197,20 +167,50 @@ public class PostService {
                 newLike.setUsername(username);
                 newLike.setCreatedDate(LocalDateTime.now());
                 postLikeRepository.save(newLike);
+                postRepository.adjustLikeCount(postId, 1);
+                feedRankingService.recordLike(postId, username, newLike.getCreatedDate());
             }
         } else {
-            if (existingLike != null) {
-                postLikeRepository.delete(existingLike);
+            if (existingLike != null && postLikeRepository.deleteLike(postId, username) > 0) {
+                postRepository.adjustLikeCount(postId, -1);
+                feedRankingService.removeLikes(List.of(existingLike));
             }
         }
         
-        return postLikeRepository.countByPostId(postId);
+        likedSetCache.onToggle(LikeWriteBuffer.Target.POST, username, postId, isLiked);
+        int likeCount = getPostLikeCount(postId);
+        announcePostActivity(postId, "like", Map.of("postId", postId, "likeCount", likeCount));
+        return likeCount;
     }
     
     public List<Long> getUserLikedPostIds(String username) {
-        return postLikeRepository.findPostIdsByUsername(username);
+        List<Long> likedPostIds = postLikeRepository.findPostIdsByUsername(username);
+        return likeWriteBuffer.overlayLikedIds(LikeWriteBuffer.Target.POST, username, likedPostIds);
     }
     
+    public LikeCheckResult checkLikes(LikeCheckRequest request) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        if (request.getUsername() == null || request.getUsername().isBlank()) {
+            throw new IllegalArgumentException("username is required");
+        }
+        if (ids.size() > maxLikeCheckIds) {
+            throw new IllegalArgumentException("At most " + maxLikeCheckIds + " ids can be checked at once");
+        }
+
+        LikeWriteBuffer.Target target;
+        if (request.getType() == null || "post".equals(request.getType())) {
+            target = LikeWriteBuffer.Target.POST;
+        } else if ("comment".equals(request.getType())) {
+            target = LikeWriteBuffer.Target.COMMENT;
+        } else {
+            throw new IllegalArgumentException("type must be 'post' or 'comment'");
+        }
+
+        BitSet liked = likedSetCache.check(target, request.getUsername(), ids);
+        return new LikeCheckResult(ids.size(), liked.toByteArray());
+    }
+    
+    @Transactional
     public Comment addCommentToPost(CommentRequest commentRequest) {
         Comment comment = new Comment();
         comment.setText(commentRequest.getText());
@@ -218,13 +218,20 @@ public class PostService {
         comment.setPostId(commentRequest.getPostId());
         comment.setCreatedDate(LocalDateTime.now());
         
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        postRepository.adjustCommentCount(comment.getPostId(), 1);
+        feedRankingService.recordComment(comment.getPostId(), comment.getUsername());
+        AfterCommit.run(() -> postSearchService.reindexPost(comment.getPostId()));
+        announcePostActivity(comment.getPostId(), "comment",
+            Map.of("postId", comment.getPostId(), "commentId", savedComment.getId()));
+        return savedComment;
     }
     
     public List<Comment> getCommentsByPostId(Long postId) {
         return commentRepository.findByPostIdOrderByCreatedDateAsc(postId);
     }
     
+    @Transactional
     public Comment addReplyToComment(Long postId, Long commentId, String text, String username) {
         Comment reply = new Comment();
         reply.setText(text);
@@ -233,10 +240,24 @@ public class PostService {
         reply.setParentId(commentId);
         reply.setCreatedDate(LocalDateTime.now());
         
-        return commentRepository.save(reply);
+        Comment savedReply = commentRepository.save(reply);
+        postRepository.adjustCommentCount(postId, 1);
+        feedRankingService.recordComment(postId, username);
+        AfterCommit.run(() -> postSearchService.reindexPost(postId));
+        announcePostActivity(postId, "comment",
+            Map.of("postId", postId, "commentId", savedReply.getId(), "parentId", commentId));
+        return savedReply;
     }
     
+    @Transactional
     public int updateCommentLike(Long commentId, String username, boolean isLiked) {
+        if (likeWriteBuffer.isEnabled()) {
+            int likeCount = likeWriteBuffer.toggle(LikeWriteBuffer.Target.COMMENT, commentId, username, isLiked);
+            likedSetCache.onToggle(LikeWriteBuffer.Target.COMMENT, username, commentId, isLiked);
+            announceCommentLike(commentId, likeCount, true);
+            return likeCount;
+        }
+        
         CommentLike existingLike = commentLikeRepository.findByCommentIdAndUsername(commentId, username);
         
         if (isLiked) {
@@ -246,36 +267,33 @@ public class PostService {
                 newLike.setUsername(username);
                 newLike.setCreatedDate(LocalDateTime.now());
                 commentLikeRepository.save(newLike);
+                commentRepository.adjustLikeCount(commentId, 1);
             }
         } else {
-            if (existingLike != null) {
-                commentLikeRepository.delete(existingLike);
+            if (existingLike != null && commentLikeRepository.deleteLike(commentId, username) > 0) {
+                commentRepository.adjustLikeCount(commentId, -1);
             }
         }
         
-        return commentLikeRepository.countByCommentId(commentId);
+        likedSetCache.onToggle(LikeWriteBuffer.Target.COMMENT, username, commentId, isLiked);
+        int likeCount = getCommentLikeCount(commentId);
+        announceCommentLike(commentId, likeCount, false);
+        return likeCount;
     }
     
     public List<Long> getUserLikedCommentIds(String username) {
-        return commentLikeRepository.findCommentIdsByUsername(username);
+        List<Long> likedCommentIds = commentLikeRepository.findCommentIdsByUsername(username);
+        return likeWriteBuffer.overlayLikedIds(LikeWriteBuffer.Target.COMMENT, username, likedCommentIds);
     }
 
     @Transactional
     public void deletePost(Long postId) {
         try {
-            Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
-            
-            List<Comment> comments = commentRepository.findByPostIdOrderByCreatedDateAsc(postId);
-            for (Comment comment : comments) {
-                commentLikeRepository.deleteByCommentId(comment.getId());
+            if (!postRepository.existsById(postId)) {
+                throw new RuntimeException("Post not found with id: " + postId);
             }
             
-            postLikeRepository.deleteByPostId(postId);
-            
-            commentRepository.deleteByPostId(postId);
-            
-            postRepository.delete(post);
+            deletePosts(List.of(postId));
             
             System.out.println("Successfully deleted post with ID: " + postId);
         } catch (Exception e) {
@@ -285,11 +303,94 @@ public class PostService {
         }
     }
 
+    // One set-based statement per dependent table, whatever the number of posts, comments
+    // and likes involved.
+    @Transactional
+    public void deletePosts(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        
+        Map<String, List<Long>> postIdsByAuthor = new HashMap<>();
+        for (Object[] row : postRepository.findAuthorsByIds(postIds)) {
+            postIdsByAuthor.computeIfAbsent((String) row[1], k -> new ArrayList<>()).add((Long) row[0]);
+        }
+        
+        if (likeWriteBuffer.isEnabled()) {
+            for (Long commentId : commentRepository.findIdsByPostIds(postIds)) {
+                likeWriteBuffer.discard(LikeWriteBuffer.Target.COMMENT, commentId);
+            }
+            for (Long postId : postIds) {
+                likeWriteBuffer.discard(LikeWriteBuffer.Target.POST, postId);
+            }
+        }
+        
+        commentLikeRepository.deleteByPostIds(postIds);
+        postLikeRepository.deleteByPostIds(postIds);
+        commentRepository.deleteByPostIds(postIds);
+        
+        timelineService.onPostsDeleted(postIds);
+        hashtagService.onPostsDeleted(postIds);
+        
+        postRepository.deleteHashtagLinksByPostIds(postIds);
+        postRepository.deleteImageUrlsByPostIds(postIds);
+        postRepository.deleteVideoUrlsByPostIds(postIds);
+        postRepository.deleteByIds(postIds);
+        
+        AfterCommit.run(() -> postSearchService.removePosts(postIds));
+        
+        feedVersionService.onAuthorsActivity(postIdsByAuthor.keySet());
+        postIdsByAuthor.forEach((author, authorPostIds) ->
+            feedEventDispatcher.publish(author, "post-deleted", Map.of("postIds", authorPostIds)));
+    }
+
+    // Stamps the author's content version and pushes a stream event for everyone who sees their posts.
+    private void announce(String author, String eventName, Map<String, Object> data) {
+        feedVersionService.onAuthorActivity(author);
+        feedEventDispatcher.publish(author, eventName, data);
+    }
+
+    private void announcePostActivity(Long postId, String eventName, Map<String, Object> data) {
+        String author = postRepository.findUsernameById(postId);
+        if (author != null) {
+            announce(author, eventName, data);
+        }
+    }
+
+    // A buffered like only reaches the stored counters when the buffer flushes, and the flush
+    // bumps the feed versions then; the toggle itself just pushes the projected count.
+    private void publishPostActivity(Long postId, String eventName, Map<String, Object> data) {
+        String author = postRepository.findUsernameById(postId);
+        if (author != null) {
+            feedEventDispatcher.publish(author, eventName, data);
+        }
+    }
+
+    private void announceCommentLike(Long commentId, int likeCount, boolean buffered) {
+        Long postId = commentRepository.findPostIdById(commentId);
+        if (postId != null) {
+            Map<String, Object> data = Map.of("postId", postId, "commentId", commentId, "likeCount", likeCount);
+            if (buffered) {
+                publishPostActivity(postId, "comment-like", data);
+            } else {
+                announcePostActivity(postId, "comment-like", data);
+            }
+        }
+    }
+
     public int getPostLikeCount(Long postId) {
-        return postLikeRepository.countByPostId(postId);
+        if (likeWriteBuffer.isEnabled()) {
+            return likeWriteBuffer.projectedCount(LikeWriteBuffer.Target.POST, postId);
+        }
+        Integer likeCount = postRepository.findLikeCountById(postId);
+        return likeCount != null ? likeCount : 0;
     }
 
     public int getCommentLikeCount(Long commentId) {
-        return commentLikeRepository.countByCommentId(commentId);
+        if (likeWriteBuffer.isEnabled()) {
+            return likeWriteBuffer.projectedCount(LikeWriteBuffer.Target.COMMENT, commentId);
+        }
+        Integer likeCount = commentRepository.findLikeCountById(commentId);
+        return likeCount != null ? likeCount : 0;
     }
 }
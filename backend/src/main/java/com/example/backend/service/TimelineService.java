@@ -0,0 +1,271 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.dto.PageCursor;
+import com.example.backend.model.Post;
+import com.example.backend.model.TimelineEntry;
+import com.example.backend.repository.ConnectionRepository;
+import com.example.backend.repository.PostRepository;
+import com.example.backend.repository.TimelineEntryRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Fan-out-on-write timelines: every post is copied into the timeline of its author and of each
+// connection, so a feed read is a range scan over the reader's own rows. Users whose network is
+// larger than the fan-out threshold get no timeline and are served fan-out-on-read instead.
+// A timeline only holds the newest max-entries posts; older pages continue with the pull query.
+@Service
+public class TimelineService {
+
+    private static final Logger log = Logger.getLogger(TimelineService.class.getName());
+
+    @Value("${feed.timeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${feed.timeline.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${feed.timeline.fanout-threshold:1000}")
+    private int fanoutThreshold;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    // Whether each reader is under the fan-out threshold, so feed reads don't count connections.
+    // Entries are dropped whenever one of the user's connections changes.
+    private final Map<String, Boolean> eligibleByUser = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean servesFromTimeline(String username) {
+        return enabled && eligibleByUser.computeIfAbsent(username,
+            name -> connectionRepository.countConnectionsForUser(name) <= fanoutThreshold);
+    }
+
+    public List<Post> readTimeline(String username, PageCursor position, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<TimelineEntry> entries = position == null ?
+            timelineEntryRepository.findTimeline(username, pageRequest) :
+            timelineEntryRepository.findTimelineBefore(
+                username, position.getCreatedDate(), position.getId(), pageRequest);
+
+        // No rows at all means the timeline was never built (store just switched on) or was
+        // dropped while the user was over the threshold, so build it from the pull query.
+        if (entries.isEmpty() && position == null) {
+            return seed(username, limit);
+        }
+
+        List<Post> posts = loadPosts(entries);
+
+        // Trimming keeps only the newest entries, so once the timeline runs out the rest of the
+        // page comes from the pull query, continuing from the last entry read.
+        if (entries.size() < limit) {
+            TimelineEntry last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+            PageRequest rest = PageRequest.of(0, limit - entries.size());
+            if (last != null) {
+                posts.addAll(postRepository.findFeedPageBefore(username, last.getCreatedDate(), last.getPostId(), rest));
+            } else {
+                posts.addAll(postRepository.findFeedPageBefore(username, position.getCreatedDate(), position.getId(), rest));
+            }
+        }
+        return posts;
+    }
+
+    // Ranking candidates from the reader's timeline. Scores decay with age, so the top of the
+    // newest max-entries posts is the top of the whole feed. Empty when the timeline is too.
+    public List<Object[]> readRankedCandidates(String username, int limit) {
+        return timelineEntryRepository.findRankedCandidates(username, PageRequest.of(0, limit));
+    }
+
+    private List<Post> seed(String username, int limit) {
+        List<Post> recentPosts = postRepository.findFeedPage(username, PageRequest.of(0, Math.max(limit, maxEntries)));
+
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (Post post : recentPosts) {
+            entries.add(new TimelineEntry(username, post));
+        }
+        try {
+            timelineEntryRepository.saveAll(entries);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent read or a new post wrote rows first; this page is still served below.
+            log.fine("Timeline for " + username + " was seeded concurrently");
+        }
+
+        return new ArrayList<>(recentPosts.subList(0, Math.min(limit, recentPosts.size())));
+    }
+
+    private List<Post> loadPosts(List<TimelineEntry> entries) {
+        List<Long> postIds = new ArrayList<>();
+        for (TimelineEntry entry : entries) {
+            postIds.add(entry.getPostId());
+        }
+
+        Map<Long, Post> postsById = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIds)) {
+            postsById.put(post.getId(), post);
+        }
+
+        List<Post> posts = new ArrayList<>();
+        for (Long postId : postIds) {
+            Post post = postsById.get(postId);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+
+    @Transactional
+    public void onPostCreated(Post post) {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> followers = connectionRepository.findConnectedUsernames(post.getUsername());
+        Set<String> largeNetworks = findLargeNetworks(followers);
+
+        List<TimelineEntry> entries = new ArrayList<>();
+        entries.add(new TimelineEntry(post.getUsername(), post));
+        for (String follower : followers) {
+            if (!largeNetworks.contains(follower)) {
+                entries.add(new TimelineEntry(follower, post));
+            }
+        }
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public void onConnectionAccepted(String username1, String username2) {
+        if (!enabled) {
+            return;
+        }
+
+        forgetEligibility(username1, username2);
+        backfill(username1, username2);
+        backfill(username2, username1);
+    }
+
+    @Transactional
+    public void onConnectionRemoved(String username1, String username2) {
+        if (!enabled) {
+            return;
+        }
+
+        forgetEligibility(username1, username2);
+        timelineEntryRepository.deleteByOwnerAndAuthor(username1, username2);
+        timelineEntryRepository.deleteByOwnerAndAuthor(username2, username1);
+    }
+
+    @Transactional
+    public void onPostsDeleted(Collection<Long> postIds) {
+        if (!enabled) {
+            return;
+        }
+
+        timelineEntryRepository.deleteByPostIds(postIds);
+    }
+
+    @Transactional
+    public void onUserDeleted(String username) {
+        if (!enabled) {
+            return;
+        }
+
+        // Every former connection's count changed.
+        AfterCommit.run(eligibleByUser::clear);
+        timelineEntryRepository.deleteByUsername(username);
+    }
+
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval-ms:300000}")
+    public void trimTimelines() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> owners = timelineEntryRepository.findOwnersExceeding(maxEntries);
+        for (String owner : owners) {
+            List<TimelineEntry> boundary = timelineEntryRepository.findTimeline(owner, PageRequest.of(maxEntries, 1));
+            if (!boundary.isEmpty()) {
+                TimelineEntry first = boundary.get(0);
+                timelineEntryRepository.deleteFromPosition(owner, first.getCreatedDate(), first.getPostId());
+            }
+        }
+
+        if (!owners.isEmpty()) {
+            log.info("Trimmed " + owners.size() + " timelines to " + maxEntries + " entries");
+        }
+    }
+
+    // After commit, so a concurrent read can't re-cache the old count.
+    private void forgetEligibility(String username1, String username2) {
+        AfterCommit.run(() -> {
+            eligibleByUser.remove(username1);
+            eligibleByUser.remove(username2);
+        });
+    }
+
+    private void backfill(String owner, String author) {
+        // Posts stop fanning out to the owner from here on, so drop the timeline rather than let
+        // it develop a gap; it is rebuilt on the first read after the owner is back under.
+        if (connectionRepository.countConnectionsForUser(owner) > fanoutThreshold) {
+            timelineEntryRepository.deleteByOwner(owner);
+            return;
+        }
+
+        Set<Long> existing = new HashSet<>(timelineEntryRepository.findPostIdsByOwnerAndAuthor(owner, author));
+        List<Post> recentPosts = postRepository.findByUsernameOrderByCreatedDateDesc(author, PageRequest.of(0, maxEntries));
+
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (Post post : recentPosts) {
+            if (!existing.contains(post.getId())) {
+                entries.add(new TimelineEntry(owner, post));
+            }
+        }
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    private Set<String> findLargeNetworks(List<String> usernames) {
+        Set<String> largeNetworks = new HashSet<>();
+        if (usernames.isEmpty()) {
+            return largeNetworks;
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : connectionRepository.countOutgoingConnections(usernames)) {
+            counts.merge((String) row[0], (Long) row[1], Long::sum);
+        }
+        for (Object[] row : connectionRepository.countIncomingConnections(usernames)) {
+            counts.merge((String) row[0], (Long) row[1], Long::sum);
+        }
+
+        counts.forEach((username, count) -> {
+            if (count > fanoutThreshold) {
+                largeNetworks.add(username);
+            }
+        });
+        return largeNetworks;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.TrendingHashtag;
+import com.example.backend.model.Hashtag;
+import com.example.backend.model.Post;
+import com.example.backend.repository.HashtagRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+// Sliding-window hashtag counts kept in memory: a ring of 5-minute buckets covering 24 hours,
+// plus a running total per window that is incremented on every post and decremented as buckets
+// expire. The top tags of each window are rebuilt on a timer, so a trending read only copies
+// a precomputed list.
+@Service
+public class TrendingHashtagService {
+
+    private static final Logger log = Logger.getLogger(TrendingHashtagService.class.getName());
+
+    private static final long BUCKET_MILLIS = 5 * 60 * 1000L;
+    private static final int BUCKETS = 288;
+
+    public enum TrendingWindow {
+        HOUR("1h", 12),
+        SIX_HOURS("6h", 72),
+        DAY("24h", 288);
+
+        private final String param;
+        private final int buckets;
+
+        TrendingWindow(String param, int buckets) {
+            this.param = param;
+            this.buckets = buckets;
+        }
+
+        public static TrendingWindow fromParam(String param) {
+            for (TrendingWindow window : values()) {
+                if (window.param.equalsIgnoreCase(param)) {
+                    return window;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Value("${hashtags.trending.max-results:50}")
+    private int maxResults;
+
+    @Autowired
+    private HashtagRepository hashtagRepository;
+
+    private final List<Map<String, Integer>> buckets = new ArrayList<>(BUCKETS);
+    private final long[] bucketEpochs = new long[BUCKETS];
+    private long currentBucket = bucketOf(System.currentTimeMillis());
+
+    private final Map<TrendingWindow, Map<String, Integer>> windowTotals = new EnumMap<>(TrendingWindow.class);
+    private volatile Map<TrendingWindow, List<TrendingHashtag>> snapshots = new EnumMap<>(TrendingWindow.class);
+
+    public TrendingHashtagService() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new HashMap<>());
+            bucketEpochs[i] = -1;
+        }
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windowTotals.put(window, new HashMap<>());
+        }
+    }
+
+    // Counters live only in memory, so the last day of posts is replayed once at startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minusHours(24);
+        List<Object[]> rows = hashtagRepository.findHashtagUsageSince(since);
+        synchronized (this) {
+            advance(bucketOf(System.currentTimeMillis()));
+            for (Object[] row : rows) {
+                add(bucketOf((LocalDateTime) row[1]), (String) row[0]);
+            }
+        }
+        refresh();
+        log.info("Seeded trending hashtags from " + rows.size() + " recent tag uses");
+    }
+
+    public void recordPost(Post post) {
+        if (post.getHashtags() == null || post.getHashtags().isEmpty()) {
+            return;
+        }
+
+        long bucket = bucketOf(post.getCreatedDate());
+        synchronized (this) {
+            advance(bucketOf(System.currentTimeMillis()));
+            for (Hashtag hashtag : post.getHashtags()) {
+                add(bucket, hashtag.getName());
+            }
+        }
+    }
+
+    public List<TrendingHashtag> getTrending(TrendingWindow window, int limit) {
+        List<TrendingHashtag> snapshot = snapshots.getOrDefault(window, Collections.emptyList());
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${hashtags.trending.refresh-interval-ms:30000}")
+    public void refresh() {
+        Map<TrendingWindow, List<TrendingHashtag>> rebuilt = new EnumMap<>(TrendingWindow.class);
+        synchronized (this) {
+            advance(bucketOf(System.currentTimeMillis()));
+            for (TrendingWindow window : TrendingWindow.values()) {
+                rebuilt.put(window, topOf(windowTotals.get(window)));
+            }
+        }
+        snapshots = rebuilt;
+    }
+
+    private void add(long bucket, String name) {
+        if (bucket > currentBucket || bucket <= currentBucket - BUCKETS) {
+            return;
+        }
+
+        int slot = (int) (bucket % BUCKETS);
+        if (bucketEpochs[slot] != bucket) {
+            buckets.get(slot).clear();
+            bucketEpochs[slot] = bucket;
+        }
+        buckets.get(slot).merge(name, 1, Integer::sum);
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            if (bucket > currentBucket - window.buckets) {
+                windowTotals.get(window).merge(name, 1, Integer::sum);
+            }
+        }
+    }
+
+    // Moves the window forward, taking each bucket that slides out of a window off that
+    // window's running total.
+    private void advance(long nowBucket) {
+        if (nowBucket - currentBucket >= BUCKETS) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.get(i).clear();
+                bucketEpochs[i] = -1;
+            }
+            for (Map<String, Integer> totals : windowTotals.values()) {
+                totals.clear();
+            }
+            currentBucket = nowBucket;
+            return;
+        }
+
+        while (currentBucket < nowBucket) {
+            currentBucket++;
+            for (TrendingWindow window : TrendingWindow.values()) {
+                long expired = currentBucket - window.buckets;
+                int slot = (int) (expired % BUCKETS);
+                if (expired >= 0 && bucketEpochs[slot] == expired) {
+                    Map<String, Integer> totals = windowTotals.get(window);
+                    buckets.get(slot).forEach((name, count) -> {
+                        if (totals.merge(name, -count, Integer::sum) <= 0) {
+                            totals.remove(name);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private List<TrendingHashtag> topOf(Map<String, Integer> totals) {
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Integer> entry : totals.entrySet()) {
+            top.offer(entry);
+            if (top.size() > maxResults) {
+                top.poll();
+            }
+        }
+
+        List<TrendingHashtag> result = new ArrayList<>();
+        while (!top.isEmpty()) {
+            Map.Entry<String, Integer> entry = top.poll();
+            result.add(new TrendingHashtag(entry.getKey(), entry.getValue()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static long bucketOf(long epochMillis) {
+        return epochMillis / BUCKET_MILLIS;
+    }
+
+    private static long bucketOf(LocalDateTime dateTime) {
+        return bucketOf(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
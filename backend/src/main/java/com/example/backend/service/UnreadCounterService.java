@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.repository.ConversationSummaryRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user totals of unread messages for the navbar badge. A user's total is read once from the
+// conversation summaries the first time it is asked for (so a restart simply reseeds it) and is
+// then moved by the deltas of committed sends and reads. Deltas for users not yet seeded are
+// dropped, since seeding reads them from the database anyway.
+@Service
+public class UnreadCounterService {
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    private final Map<String, Integer> unreadByUser = new ConcurrentHashMap<>();
+
+    private final Map<String, InFlight> inFlightByUser = new ConcurrentHashMap<>();
+
+    // Deltas from the moment they are written until their transaction finishes. A seed that
+    // overlaps one can't tell whether its sum already includes that delta.
+    private static final class InFlight {
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicLong generation = new AtomicLong();
+
+        void begin() {
+            pending.incrementAndGet();
+            generation.incrementAndGet();
+        }
+
+        void finish() {
+            pending.decrementAndGet();
+            generation.incrementAndGet();
+        }
+    }
+
+    public int getUnreadCount(String username) {
+        Integer cached = unreadByUser.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        InFlight inFlight = inFlight(username);
+        long generation = inFlight.generation.get();
+        boolean quiet = inFlight.pending.get() == 0;
+        int seeded = (int) conversationSummaryRepository.sumUnread(username);
+
+        // The total is only kept if no delta was in flight while it was read; otherwise it is
+        // served once and the next read seeds again. Checking under the map's lock means a delta
+        // that starts after the check is applied on top of the stored total.
+        if (quiet) {
+            unreadByUser.compute(username, (k, current) ->
+                current != null ? current : inFlight.generation.get() == generation ? seeded : null);
+        }
+        return seeded;
+    }
+
+    public void adjust(String username, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        InFlight inFlight = inFlight(username);
+        inFlight.begin();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(username, delta);
+            inFlight.finish();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(username, delta);
+                }
+                inFlight.finish();
+            }
+        });
+    }
+
+    // The deleted user's conversations disappear from everyone else's totals too, so all
+    // totals are dropped and reseeded on their next read.
+    public void onUserDeleted(String username) {
+        unreadByUser.clear();
+    }
+
+    private void apply(String username, int delta) {
+        unreadByUser.computeIfPresent(username, (k, count) -> Math.max(0, count + delta));
+    }
+
+    private InFlight inFlight(String username) {
+        return inFlightByUser.computeIfAbsent(username, k -> new InFlight());
+    }
+}
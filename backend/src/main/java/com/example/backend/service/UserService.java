@@ -1,10 +1,11 @@
 package com.example.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.example.backend.model.Post;
+import com.example.backend.dto.AccountDeletionStatus;
 import com.example.backend.model.Users;
 import com.example.backend.repository.ConnectionRepository;
 import com.example.backend.repository.MessageRepository;
@@ -33,24 +34,55 @@ public class UserService {
     
     @Autowired
     private PostService postService;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private FeedRankingService feedRankingService;
+    
+    @Autowired
+    private UserSummaryCache userSummaryCache;
+    
+    @Autowired
+    private LikedSetCache likedSetCache;
+    
+    @Autowired
+    private ConversationService conversationService;
 
-    @Transactional
-    public void deleteUserAccount(String username) {
+    @Value("${account-deletion.batch-size:200}")
+    private int deletionBatchSize;
+
+    // Runs in bounded batches that each commit on their own rather than in one transaction,
+    // reporting progress on the given status as it goes.
+    public void deleteUserAccount(AccountDeletionStatus status) {
+        String username = status.getUsername();
         Users user = userRepository.findByUsername(username);
         if (user == null) {
             throw new RuntimeException("User not found with username: " + username);
         }
 
-        List<Post> userPosts = postRepository.findByUsernameOrderByCreatedDateDesc(username);
-        for (Post post : userPosts) {
-            postService.deletePost(post.getId()); 
+        List<Long> postIds;
+        while (!(postIds = postRepository.findIdsByUsername(username, PageRequest.of(0, deletionBatchSize))).isEmpty()) {
+            postService.deletePosts(postIds);
+            status.setDeletedPosts(status.getDeletedPosts() + postIds.size());
         }
         
-        connectionRepository.deleteByFromUsernameOrToUsername(username, username);
+        timelineService.onUserDeleted(username);
+        feedRankingService.onUserDeleted(username);
+        
+        connectionRepository.deleteAllForUser(username);
+        conversationService.onUserDeleted(username);
         
-        messageRepository.deleteByFromUsernameOrToUsername(username, username);
+        List<Long> messageIds;
+        while (!(messageIds = messageRepository.findIdsByParticipant(username, PageRequest.of(0, deletionBatchSize))).isEmpty()) {
+            messageRepository.deleteByIds(messageIds);
+            status.setDeletedMessages(status.getDeletedMessages() + messageIds.size());
+        }
         
         userRepository.delete(user);
+        userSummaryCache.invalidate(username);
+        likedSetCache.onUserDeleted(username);
         
         log.info("Successfully deleted user account with username: " + username);
     }
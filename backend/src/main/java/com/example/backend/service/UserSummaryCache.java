@@ -0,0 +1,170 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.UserSummary;
+import com.example.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU of username -> profile summary for every path that decorates rows with their
+// author's name and photo. Entries expire after a TTL and are invalidated when a profile changes
+// or an account is deleted; unknown usernames are not cached. Misses are loaded with one IN query.
+// Hit, miss and eviction counts are published as the standard cache.* meters.
+@Service
+public class UserSummaryCache {
+
+    private static final String CACHE_NAME = "userSummaries";
+
+    @Value("${users.summary-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${users.summary-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Bumped by every invalidation, so a load that overlapped one does not cache what it read.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Map<String, Entry> entries;
+    private long ttlNanos;
+
+    @PostConstruct
+    public void init() {
+        ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+            .tag("cache", CACHE_NAME).tag("result", "hit")
+            .description("User summary cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+            .tag("cache", CACHE_NAME).tag("result", "miss")
+            .description("User summary cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+            .tag("cache", CACHE_NAME)
+            .description("User summaries evicted for size or expiry")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", this, UserSummaryCache::size)
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, UserSummaryCache::hitRatio)
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    public UserSummary get(String username) {
+        if (username == null) {
+            return null;
+        }
+        return getAll(Set.of(username)).get(username);
+    }
+
+    // Returns the summaries of the given users that exist, keyed by username.
+    public Map<String, UserSummary> getAll(Collection<String> usernames) {
+        Map<String, UserSummary> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            for (String username : usernames) {
+                if (username == null || found.containsKey(username) || missing.contains(username)) {
+                    continue;
+                }
+                Entry entry = entries.get(username);
+                if (entry != null && now - entry.loadedAt < ttlNanos) {
+                    found.put(username, entry.summary);
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(username);
+                    evictions.incrementAndGet();
+                }
+                missing.add(username);
+            }
+        }
+
+        hits.addAndGet(found.size());
+        misses.addAndGet(missing.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long generation = invalidations.get();
+        Map<String, UserSummary> loaded = new HashMap<>();
+        for (UserSummary summary : userRepository.findSummariesByUsernameIn(missing)) {
+            loaded.put(summary.username(), summary);
+        }
+        found.putAll(loaded);
+
+        synchronized (entries) {
+            if (invalidations.get() == generation) {
+                long loadedAt = System.nanoTime();
+                loaded.forEach((username, summary) -> entries.put(username, new Entry(summary, loadedAt)));
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(username);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private static class Entry {
+        private final UserSummary summary;
+        private final long loadedAt;
+
+        Entry(UserSummary summary, long loadedAt) {
+            this.summary = summary;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.example.backend.dto.MessageRequest;
+import com.example.backend.service.ConversationService;
+
+// Opens many STOMP sessions against a running server and sends one message to each, then checks
+// that every recipient got it and that a read receipt reaches the sender. Too slow for the
+// default build, so it only runs on request:
+//   mvn test -Dtest=MessagePushLoadTest -Dloadtest=true -Dsessions=4000
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MessagePushLoadTest {
+
+    private static final String SENDER = "u0";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Test
+    void deliversAMessageToEverySession() throws Exception {
+        int sessions = Integer.getInteger("sessions", 1000);
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.initialize();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setTaskScheduler(scheduler);
+
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setOrigin("http://localhost:5173");
+
+        CountDownLatch delivered = new CountDownLatch(sessions);
+        CountDownLatch receipt = new CountDownLatch(1);
+        AtomicInteger misdelivered = new AtomicInteger();
+        List<StompSession> connected = new ArrayList<>();
+
+        long connectStart = System.nanoTime();
+        StompSession sender = connect(client, headers, SENDER);
+        sender.subscribe("/user/queue/read-receipts", handler(payload -> receipt.countDown()));
+        connected.add(sender);
+        for (int i = 1; i <= sessions; i++) {
+            String username = "u" + i;
+            StompSession session = connect(client, headers, username);
+            session.subscribe("/user/queue/messages", handler(payload -> {
+                if (username.equals(payload.get("toUsername"))) {
+                    delivered.countDown();
+                } else {
+                    misdelivered.incrementAndGet();
+                }
+            }));
+            connected.add(session);
+        }
+        long connectMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+
+        // Subscriptions are registered asynchronously; give the broker a moment to see them all.
+        Thread.sleep(1000);
+
+        long sendStart = System.nanoTime();
+        for (int i = 1; i <= sessions; i++) {
+            MessageRequest request = new MessageRequest();
+            request.setFromUsername(SENDER);
+            request.setToUsername("u" + i);
+            request.setText("hello " + i);
+            conversationService.sendMessage(request);
+        }
+        assertTrue(delivered.await(60, TimeUnit.SECONDS),
+            (sessions - delivered.getCount()) + "/" + sessions + " messages delivered");
+        long deliverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendStart);
+
+        connected.get(1).send("/app/messages.read", Map.of("otherUsername", SENDER));
+        assertTrue(receipt.await(10, TimeUnit.SECONDS), "read receipt not delivered");
+        assertEquals(0, misdelivered.get());
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.println(sessions + " sessions connected in " + connectMs + " ms, "
+            + sessions + " messages delivered in " + deliverMs + " ms, heap used "
+            + (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB");
+
+        for (StompSession session : connected) {
+            session.disconnect();
+        }
+        client.stop();
+        scheduler.shutdown();
+    }
+
+    private StompSession connect(WebSocketStompClient client, WebSocketHttpHeaders headers, String username)
+            throws Exception {
+        return client.connectAsync("ws://localhost:" + port + "/ws?username=" + username, headers,
+            new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+    }
+
+    private StompFrameHandler handler(Consumer<Map<String, Object>> onPayload) {
+        return new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                onPayload.accept((Map<String, Object>) payload);
+            }
+        };
+    }
+}
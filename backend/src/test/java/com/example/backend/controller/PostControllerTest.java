@@ -0,0 +1,68 @@
+package com.example.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.model.Users;
+import com.example.backend.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class PostControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createAuthor() {
+        if (userRepository.findByUsername("author") == null) {
+            Users user = new Users();
+            user.setUsername("author");
+            user.setFirstName("Post");
+            user.setLastName("Author");
+            user.setEmail("author@example.com");
+            userRepository.save(user);
+        }
+    }
+
+    // The second post resolves the tag through the intern cache; it must still be linked to the
+    // tag and serialize it.
+    @Test
+    void postsReusingAHashtagSerializeIt() throws Exception {
+        String body = "{\"text\":\"hello\",\"username\":\"author\",\"hashtags\":[\"shared\"]}";
+        int linkedBefore = countLinks("shared");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/posts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.hashtags[0].name").value("shared"));
+        }
+        assertEquals(linkedBefore + 2, countLinks("shared"));
+    }
+
+    private int countLinks(String tag) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_hashtags ph JOIN hashtags h ON h.id = ph.hashtag_id " +
+            "WHERE h.name = ?", Integer.class, tag);
+    }
+}
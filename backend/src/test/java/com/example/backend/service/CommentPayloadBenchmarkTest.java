@@ -0,0 +1,164 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.backend.dto.CommentRow;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Users;
+import com.example.backend.repository.CommentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Compares building and serializing a page of comments as typed records against the nested
+// HashMaps the formatter produced before, with the database left out. Timing-sensitive, so it
+// only runs on request:
+//   mvn test -Dtest=CommentPayloadBenchmarkTest -Dbenchmark=true
+@ExtendWith(MockitoExtension.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CommentPayloadBenchmarkTest {
+
+    private static final int COMMENTS = 1000;
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 20_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // Stub-only so the measured calls aren't recorded for verification.
+    @Mock(stubOnly = true)
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
+    @InjectMocks
+    private FeedHydrationService feedHydrationService;
+
+    @Test
+    void measuresRecordsAgainstMaps() throws Exception {
+        List<Comment> comments = new ArrayList<>();
+        List<CommentRow> rows = new ArrayList<>();
+        Map<String, Users> usersByUsername = new HashMap<>();
+        List<Object[]> replyCounts = new ArrayList<>();
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 50; i++) {
+            Users user = new Users();
+            user.setUsername("user" + i);
+            user.setFirstName("First");
+            user.setLastName("Last" + i);
+            user.setProfilePhoto("/photos/user" + i + ".jpg");
+            usersByUsername.put(user.getUsername(), user);
+        }
+        for (long id = 1; id <= COMMENTS; id++) {
+            Long parentId = id % 2 == 0 ? id - 1 : null;
+            String username = "user" + (id % 50);
+            Users user = usersByUsername.get(username);
+
+            Comment comment = new Comment();
+            comment.setId(id);
+            comment.setPostId(1L);
+            comment.setParentId(parentId);
+            comment.setText("comment text " + id);
+            comment.setUsername(username);
+            comment.setCreatedDate(now.plusSeconds(id));
+            comment.setLikeCount((int) (id % 7));
+            comments.add(comment);
+
+            rows.add(new CommentRow(id, 1L, parentId, comment.getText(), comment.getCreatedDate(), comment.getLikeCount(),
+                username, username, user.getFirstName(), user.getLastName(), user.getProfilePhoto()));
+            if (parentId == null) {
+                replyCounts.add(new Object[] { id, 1L });
+            }
+        }
+        when(commentRepository.countRepliesByParentIds(anyCollection())).thenReturn(replyCounts);
+        Map<Long, Integer> replyCountsById = new HashMap<>();
+        for (Object[] row : replyCounts) {
+            replyCountsById.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Supplier<Object> maps = () -> formatAsMaps(comments, usersByUsername, replyCountsById);
+        Supplier<Object> records = () -> feedHydrationService.formatCommentPage(rows);
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(maps.get())),
+            objectMapper.readTree(objectMapper.writeValueAsBytes(records.get())));
+
+        measure(maps);
+        measure(records);
+        long[] before = measure(maps);
+        long[] after = measure(records);
+
+        System.out.printf("%d comments, build + serialize per page:%n", COMMENTS);
+        System.out.printf("  maps:    %,d ns, %,d bytes allocated%n", before[0], before[1]);
+        System.out.printf("  records: %,d ns, %,d bytes allocated%n", after[0], after[1]);
+    }
+
+    // Average time and allocation per page, after a warm-up pass.
+    private long[] measure(Supplier<Object> payload) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += objectMapper.writeValueAsBytes(payload.get()).length;
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += objectMapper.writeValueAsBytes(payload.get()).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (sink == 0) {
+            throw new IllegalStateException("empty payloads");
+        }
+        return new long[] { elapsed / MEASURED_ROUNDS, allocated / MEASURED_ROUNDS };
+    }
+
+    // The comment page formatter as it was before the typed records: one HashMap per comment
+    // and per author, from Comment and Users entities.
+    private List<Map<String, Object>> formatAsMaps(List<Comment> comments, Map<String, Users> usersByUsername,
+            Map<Long, Integer> replyCounts) {
+        List<Map<String, Object>> formattedComments = new ArrayList<>();
+        for (Comment comment : comments) {
+            Map<String, Object> formattedComment = new HashMap<>();
+            formattedComment.put("id", comment.getId());
+            formattedComment.put("text", comment.getText());
+            formattedComment.put("date", comment.getCreatedDate());
+            formattedComment.put("likes", comment.getLikeCount());
+            if (comment.getParentId() != null) {
+                formattedComment.put("parentId", comment.getParentId());
+            }
+
+            Users user = usersByUsername.get(comment.getUsername());
+            Map<String, Object> author = new HashMap<>();
+            author.put("username", user.getUsername());
+            author.put("name", user.getFirstName() + " " + user.getLastName());
+            author.put("profilePhoto", user.getProfilePhoto());
+            formattedComment.put("author", author);
+
+            if (comment.getParentId() == null) {
+                formattedComment.put("replyCount", replyCounts.getOrDefault(comment.getId(), 0));
+            }
+            formattedComments.add(formattedComment);
+        }
+        return formattedComments;
+    }
+}
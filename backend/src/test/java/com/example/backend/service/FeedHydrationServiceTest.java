@@ -0,0 +1,144 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.backend.dto.CommentRow;
+import com.example.backend.dto.CommentView;
+import com.example.backend.dto.UserSummary;
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FeedHydrationServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserSummaryCache userSummaryCache;
+
+    @InjectMocks
+    private FeedHydrationService feedHydrationService;
+
+    @Test
+    void hydratesLargeFeedWithFixedNumberOfQueries() {
+        List<Post> posts = new ArrayList<>();
+        List<CommentRow> comments = new ArrayList<>();
+        Map<String, UserSummary> users = new HashMap<>();
+
+        long commentId = 1;
+        for (long postId = 1; postId <= 200; postId++) {
+            String author = "user" + (postId % 20);
+            Post post = post(postId, author);
+            post.setLikeCount((int) postId);
+            posts.add(post);
+
+            CommentRow top = comment(commentId++, postId, null, "user" + (postId % 7), 3);
+            CommentRow reply = comment(commentId++, postId, top.id(), "user" + (postId % 5), 0);
+            comments.add(top);
+            comments.add(reply);
+        }
+        for (int i = 0; i < 20; i++) {
+            users.put("user" + i, user("user" + i));
+        }
+
+        when(commentRepository.findRowsByPostIds(anyCollection())).thenReturn(comments);
+        when(userSummaryCache.getAll(anyCollection())).thenReturn(users);
+
+        feedHydrationService.hydrate(posts);
+
+        verify(commentRepository, times(1)).findRowsByPostIds(anyCollection());
+        verify(userSummaryCache, times(1)).getAll(anyCollection());
+        verifyNoMoreInteractions(commentRepository, userSummaryCache);
+
+        Post first = posts.get(0);
+        assertEquals(1, first.getLikeCount());
+        assertEquals("First user1", first.getAuthorName());
+        assertEquals(1, first.getComments().size());
+
+        CommentView topComment = first.getComments().get(0);
+        assertEquals(3, topComment.likes());
+        assertEquals("First user1", topComment.author().name());
+        List<CommentView> replies = topComment.replies();
+        assertEquals(1, replies.size());
+        assertEquals(0, replies.get(0).likes());
+        assertEquals(topComment.id(), replies.get(0).parentId());
+    }
+
+    @Test
+    void previewHydrationEmbedsReplyCountsInsteadOfReplies() {
+        List<Post> posts = new ArrayList<>();
+        List<CommentRow> previews = new ArrayList<>();
+        List<Object[]> replyCounts = new ArrayList<>();
+        for (long postId = 1; postId <= 50; postId++) {
+            posts.add(post(postId, "user1"));
+            previews.add(comment(postId * 10, postId, null, "user2", 0));
+            previews.add(comment(postId * 10 + 1, postId, null, null, 0));
+            replyCounts.add(new Object[] { postId * 10, 4L });
+        }
+
+        when(commentRepository.findTopLevelPreview(anyCollection(), eq(2))).thenReturn(previews);
+        when(commentRepository.countRepliesByParentIds(anyCollection())).thenReturn(replyCounts);
+        when(userSummaryCache.getAll(anyCollection())).thenReturn(Map.of("user1", user("user1")));
+
+        feedHydrationService.hydrateWithPreview(posts, 2);
+
+        verify(commentRepository, times(1)).findTopLevelPreview(anyCollection(), eq(2));
+        verify(commentRepository, times(1)).countRepliesByParentIds(anyCollection());
+        verify(userSummaryCache, times(1)).getAll(anyCollection());
+        verifyNoMoreInteractions(commentRepository, userSummaryCache);
+
+        List<CommentView> preview = posts.get(0).getComments();
+        assertEquals(2, preview.size());
+        assertEquals(4, preview.get(0).replyCount());
+        assertEquals(0, preview.get(1).replyCount());
+        assertNull(preview.get(0).replies());
+        assertEquals("Unknown User", preview.get(1).author().name());
+    }
+
+    @Test
+    void emptyFeedRunsNoQueries() {
+        feedHydrationService.hydrate(new ArrayList<>());
+
+        verifyNoInteractions(commentRepository, userSummaryCache);
+    }
+
+    private Post post(Long id, String username) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUsername(username);
+        post.setCreatedDate(LocalDateTime.now());
+        return post;
+    }
+
+    // A null author stands for a commenter whose account no longer exists.
+    private CommentRow comment(Long id, Long postId, Long parentId, String author, int likeCount) {
+        String username = author != null ? author : "deleted";
+        return new CommentRow(id, postId, parentId, "text", LocalDateTime.now(), likeCount,
+            username, author, author != null ? "First" : null, author, null);
+    }
+
+    private UserSummary user(String username) {
+        return new UserSummary(username, "First", username, null, null);
+    }
+}
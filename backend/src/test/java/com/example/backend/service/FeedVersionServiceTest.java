@@ -0,0 +1,62 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.backend.repository.ConnectionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FeedVersionServiceTest {
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    @InjectMocks
+    private FeedVersionService feedVersionService;
+
+    @Test
+    void authorActivityDoesNotLookUpViewers() {
+        feedVersionService.onAuthorActivity("author");
+
+        verifyNoInteractions(connectionRepository);
+    }
+
+    @Test
+    void connectionsActivityChangesTheViewersFeedTag() {
+        when(connectionRepository.findConnectedUsernames("viewer")).thenReturn(List.of("author"));
+        String before = feedVersionService.feedETag("viewer");
+
+        feedVersionService.onAuthorActivity("stranger");
+        assertEquals(before, feedVersionService.feedETag("viewer"));
+
+        feedVersionService.onAuthorActivity("author");
+        assertNotEquals(before, feedVersionService.feedETag("viewer"));
+        verify(connectionRepository, times(1)).findConnectedUsernames("viewer");
+    }
+
+    @Test
+    void connectionChangeReloadsTheViewersAuthors() {
+        when(connectionRepository.findConnectedUsernames("viewer")).thenReturn(List.of());
+        feedVersionService.feedETag("viewer");
+
+        when(connectionRepository.findConnectedUsernames("viewer")).thenReturn(List.of("author"));
+        feedVersionService.onConnectionChanged("viewer", "author");
+        String connected = feedVersionService.feedETag("viewer");
+
+        feedVersionService.onAuthorActivity("author");
+        assertNotEquals(connected, feedVersionService.feedETag("viewer"));
+        verify(connectionRepository, times(2)).findConnectedUsernames("viewer");
+    }
+}
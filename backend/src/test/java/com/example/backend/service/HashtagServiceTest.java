@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.Hashtag;
+import com.example.backend.repository.HashtagPostEntryRepository;
+import com.example.backend.repository.HashtagRepository;
+
+@ExtendWith(MockitoExtension.class)
+class HashtagServiceTest {
+
+    @Mock
+    private HashtagRepository hashtagRepository;
+
+    @Mock
+    private HashtagPostEntryRepository hashtagPostEntryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HashtagService hashtagService;
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(hashtagService, "internCacheSize", 100);
+        hashtagService.init();
+    }
+
+    @Test
+    void cachedTagsResolveWithoutTheDatabase() {
+        Hashtag stored = new Hashtag("java");
+        stored.setId(7L);
+        when(hashtagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(stored));
+
+        hashtagService.resolve(List.of("java"));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        verify(hashtagRepository).findByNameIn(Set.of("java"));
+
+        Set<Hashtag> again = hashtagService.resolve(List.of("java"));
+        verifyNoMoreInteractions(jdbcTemplate, hashtagRepository);
+
+        Hashtag cached = again.iterator().next();
+        assertEquals(7L, cached.getId());
+        assertEquals("java", cached.getName());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.backend.dto.PostRequest;
+import com.example.backend.model.Post;
+import com.example.backend.model.Users;
+import com.example.backend.repository.UserRepository;
+
+// Flushes are run by hand; the interval is long enough that the scheduler never does. The
+// properties make this a separate context, which needs its own search index directory while the
+// default test context holds the other one open.
+@SpringBootTest(properties = {
+    "likes.write-behind.enabled=true",
+    "likes.write-behind.flush-interval-ms=3600000",
+    "search.index-dir=target/test-search-index-like-buffer"
+})
+@ActiveProfiles("h2")
+class LikeWriteBufferTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createUsers() {
+        createUser("liker");
+        createUser("fan");
+    }
+
+    @Test
+    void flushWritesBufferedLikes() {
+        Post post = createPost();
+
+        postService.updatePostLike(post.getId(), "liker", true);
+        likeWriteBuffer.flush();
+
+        assertEquals(1, countLikes(post.getId()));
+        assertEquals(1, postService.getPostLikeCount(post.getId()));
+    }
+
+    // A stale client can still like a post after it is gone; that must not leave an orphan row.
+    @Test
+    void likesOfDeletedPostsAreNotWritten() {
+        Post post = createPost();
+
+        postService.updatePostLike(post.getId(), "liker", true);
+        postService.deletePost(post.getId());
+        postService.updatePostLike(post.getId(), "liker", true);
+        likeWriteBuffer.flush();
+
+        assertEquals(0, countLikes(post.getId()));
+    }
+
+    // Toggling a like on and off must leave the ranking where it started.
+    @Test
+    void unlikeTakesTheLikeOutOfTheRanking() {
+        Post post = createPost();
+        double initialScore = rankScore(post.getId());
+
+        postService.updatePostLike(post.getId(), "fan", true);
+        likeWriteBuffer.flush();
+        double likedScore = rankScore(post.getId());
+        assertTrue(likedScore > initialScore);
+        assertEquals(1, countAffinities("fan", "liker"));
+
+        postService.updatePostLike(post.getId(), "fan", false);
+        likeWriteBuffer.flush();
+        assertEquals(initialScore, rankScore(post.getId()), 1e-6);
+        assertEquals(0, countAffinities("fan", "liker"));
+    }
+
+    private void createUser(String username) {
+        if (userRepository.findByUsername(username) == null) {
+            Users user = new Users();
+            user.setUsername(username);
+            user.setFirstName("Like");
+            user.setLastName("Buffer");
+            user.setEmail(username + "@example.com");
+            userRepository.save(user);
+        }
+    }
+
+    private Post createPost() {
+        PostRequest request = new PostRequest();
+        request.setText("like me");
+        request.setUsername("liker");
+        return postService.createPost(request);
+    }
+
+    private double rankScore(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT rank_score FROM post WHERE id = ?", Double.class, postId);
+    }
+
+    private int countAffinities(String viewer, String author) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_affinity WHERE viewer = ? AND author = ?",
+            Integer.class, viewer, author);
+    }
+
+    private int countLikes(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_likes WHERE post_id = ?", Integer.class, postId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.backend.dto.MessageSync;
+import com.example.backend.model.Message;
+import com.example.backend.repository.MessageRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSyncServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @InjectMocks
+    private MessageSyncService messageSyncService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Message 10 is inserted first but commits after message 11; a waiter woken by 11 alone
+    // would move its cursor past 10 and never see it.
+    @Test
+    void cursorDoesNotPassALowerIdStillCommitting() {
+        ReflectionTestUtils.setField(messageSyncService, "timeoutMs", 30000L);
+        when(messageRepository.findLatestIdForParticipant("bob")).thenReturn(5L);
+        DeferredResult<MessageSync> result = messageSyncService.sync("bob", 5L);
+
+        Message first = message(10L);
+        Message second = message(11L);
+        List<TransactionSynchronization> sendFirst = inTransaction(() ->
+            messageSyncService.onMessageSent(messageSyncService.beginSend("alice", "bob"), first));
+        List<TransactionSynchronization> sendSecond = inTransaction(() ->
+            messageSyncService.onMessageSent(messageSyncService.beginSend("alice", "bob"), second));
+
+        when(messageRepository.findForParticipantAfter(eq("bob"), eq(5L), any(Pageable.class))).thenReturn(List.of(second));
+        complete(sendSecond, TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(result.hasResult());
+
+        when(messageRepository.findForParticipantAfter(eq("bob"), eq(5L), any(Pageable.class))).thenReturn(List.of(first, second));
+        complete(sendFirst, TransactionSynchronization.STATUS_COMMITTED);
+        MessageSync sync = (MessageSync) result.getResult();
+        assertEquals(List.of(first, second), sync.messages());
+        assertEquals(11L, sync.lastId());
+    }
+
+    private Message message(Long id) {
+        Message message = new Message();
+        message.setId(id);
+        message.setFromUsername("alice");
+        message.setToUsername("bob");
+        return message;
+    }
+
+    private List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private void complete(List<TransactionSynchronization> synchronizations, int status) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.lucene.index.IndexWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.HashtagRepository;
+import com.example.backend.repository.PostRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private HashtagRepository hashtagRepository;
+
+    @TempDir
+    private Path indexDir;
+
+    // The second post is indexed but not committed when the process dies; the next start
+    // finds it in the database instead of rebuilding the whole index.
+    @Test
+    void startupCatchesUpWritesLostSinceTheLastCommit() throws Exception {
+        PostSearchService crashed = open();
+        crashed.indexPost(post(1L, "first post"));
+        crashed.commit();
+        crashed.indexPost(post(2L, "second post"));
+        ((IndexWriter) ReflectionTestUtils.getField(crashed, "indexWriter")).rollback();
+
+        PostSearchService restarted = open();
+        when(postRepository.findIdsAfterOrCreatedSince(eq(1L), any(LocalDateTime.class))).thenReturn(List.of(2L));
+        when(commentRepository.findPostIdsCommentedSince(any(LocalDateTime.class))).thenReturn(List.of());
+        when(postRepository.findTextsByIds(List.of(2L))).thenReturn(List.<Object[]>of(new Object[] { 2L, "second post" }));
+        when(hashtagRepository.findNamesByPostIds(anyCollection())).thenReturn(List.of());
+        when(commentRepository.findTextsByPostIds(anyCollection())).thenReturn(List.of());
+
+        restarted.rebuildIfNeeded();
+
+        assertEquals(List.of(1L), restarted.search("first", 0, 10));
+        assertEquals(List.of(2L), restarted.search("second", 0, 10));
+        verify(postRepository, never()).findTextsAfter(any(), any(Pageable.class));
+        restarted.close();
+    }
+
+    private PostSearchService open() throws Exception {
+        PostSearchService service = new PostSearchService();
+        ReflectionTestUtils.setField(service, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(service, "rebuildBatchSize", 500);
+        ReflectionTestUtils.setField(service, "postRepository", postRepository);
+        ReflectionTestUtils.setField(service, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(service, "hashtagRepository", hashtagRepository);
+        service.open();
+        return service;
+    }
+
+    private Post post(Long id, String text) {
+        Post post = new Post();
+        post.setId(id);
+        post.setText(text);
+        return post;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.PageCursor;
+import com.example.backend.model.Post;
+import com.example.backend.model.TimelineEntry;
+import com.example.backend.repository.ConnectionRepository;
+import com.example.backend.repository.PostRepository;
+import com.example.backend.repository.TimelineEntryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(timelineService, "enabled", true);
+        ReflectionTestUtils.setField(timelineService, "maxEntries", 500);
+        ReflectionTestUtils.setField(timelineService, "fanoutThreshold", 1000);
+    }
+
+    @Test
+    void countsConnectionsOncePerReader() {
+        when(connectionRepository.countConnectionsForUser("reader")).thenReturn(10L);
+
+        assertTrue(timelineService.servesFromTimeline("reader"));
+        assertTrue(timelineService.servesFromTimeline("reader"));
+
+        verify(connectionRepository, times(1)).countConnectionsForUser("reader");
+    }
+
+    @Test
+    void seedsEmptyTimelineFromPullQuery() {
+        List<Post> feed = List.of(post(3), post(2), post(1));
+        when(timelineEntryRepository.findTimeline(eq("reader"), any(Pageable.class))).thenReturn(new ArrayList<>());
+        when(postRepository.findFeedPage(eq("reader"), any(Pageable.class))).thenReturn(feed);
+
+        List<Post> page = timelineService.readTimeline("reader", null, 2);
+
+        assertEquals(List.of(feed.get(0), feed.get(1)), page);
+        verify(timelineEntryRepository).saveAll(anyList());
+    }
+
+    // Post 1 was trimmed from the timeline, so the page continues from the pull query.
+    @Test
+    void continuesWithPullQueryWhenTimelineRunsOut() {
+        Post newest = post(3);
+        Post middle = post(2);
+        Post trimmed = post(1);
+        when(timelineEntryRepository.findTimeline(eq("reader"), any(Pageable.class)))
+            .thenReturn(List.of(new TimelineEntry("reader", newest), new TimelineEntry("reader", middle)));
+        when(postRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(middle, newest));
+        when(postRepository.findFeedPageBefore(eq("reader"), eq(middle.getCreatedDate()), eq(2L), any(Pageable.class)))
+            .thenReturn(List.of(trimmed));
+
+        List<Post> page = timelineService.readTimeline("reader", null, 3);
+
+        assertEquals(List.of(newest, middle, trimmed), page);
+        verify(postRepository, never()).findFeedPage(any(), any());
+    }
+
+    @Test
+    void pagesPastTheTimelineFromTheCursor() {
+        Post older = post(1);
+        PageCursor cursor = new PageCursor(NOW.plusMinutes(2), 2L);
+        when(timelineEntryRepository.findTimelineBefore(eq("reader"), eq(cursor.getCreatedDate()), eq(2L), any(Pageable.class)))
+            .thenReturn(new ArrayList<>());
+        when(postRepository.findFeedPageBefore(eq("reader"), eq(cursor.getCreatedDate()), eq(2L), any(Pageable.class)))
+            .thenReturn(List.of(older));
+
+        List<Post> page = timelineService.readTimeline("reader", cursor, 3);
+
+        assertEquals(List.of(older), page);
+        verify(timelineEntryRepository, never()).saveAll(anyList());
+    }
+
+    private Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUsername("author");
+        post.setCreatedDate(NOW.plusMinutes(id));
+        return post;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.repository.ConversationSummaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void appliesCommittedDeltasToSeededTotal() {
+        when(conversationSummaryRepository.sumUnread("reader")).thenReturn(2L);
+        assertEquals(2, unreadCounterService.getUnreadCount("reader"));
+
+        List<TransactionSynchronization> send = inTransaction(() -> unreadCounterService.adjust("reader", 1));
+        complete(send, TransactionSynchronization.STATUS_COMMITTED);
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> unreadCounterService.adjust("reader", 1));
+        complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(3, unreadCounterService.getUnreadCount("reader"));
+        verify(conversationSummaryRepository, times(1)).sumUnread("reader");
+    }
+
+    // The send has committed (the sum already counts it) but its delta hasn't been applied yet
+    // when the first read seeds; applying it on top would count the message twice.
+    @Test
+    void seedRacingACommittedSendCountsItOnce() {
+        List<TransactionSynchronization> send = inTransaction(() -> unreadCounterService.adjust("reader", 1));
+        when(conversationSummaryRepository.sumUnread("reader")).thenReturn(1L);
+
+        assertEquals(1, unreadCounterService.getUnreadCount("reader"));
+        complete(send, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, unreadCounterService.getUnreadCount("reader"));
+    }
+
+    private List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private void complete(List<TransactionSynchronization> synchronizations, int status) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import { useNavigate } from 'react-router-dom';
 import { Calendar, ThumbsUp, MessageCircle, Share2, Send, MoreVertical, Heart } from 'lucide-react';
 import CreatePostCard from './CreatePostCard';
 import axios from 'axios';
+import { fetchCommentThreads } from '../utils/comments';
 
 const formatDate = (dateString) => {
   if (!dateString) return '';
@@ -183,7 +184,22 @@ const FeedPage = () => {
     }
   };
 
+  // The feed only carries a preview of each post's comments; the full threads are loaded
+  // when a post's comments are opened.
+  const loadComments = async (postId) => {
+    try {
+      const comments = await fetchCommentThreads(postId);
+      setPosts(prev => prev.map(post => post.id === postId ? { ...post, comments, commentsLoaded: true } : post));
+    } catch (error) {
+      console.error('Error fetching comments:', error);
+    }
+  };
+
   const toggleComments = (postId) => {
+    const post = posts.find(p => p.id === postId);
+    if (!expandedComments.includes(postId) && post && !post.commentsLoaded) {
+      loadComments(postId);
+    }
     setExpandedComments(prev => 
       prev.includes(postId) 
         ? prev.filter(id => id !== postId)
@@ -310,7 +326,8 @@ const FeedPage = () => {
       });
 
       if (response.ok) {
-        fetchPosts();
+        setPosts(prev => prev.map(post => post.id === postId ? { ...post, commentCount: (post.commentCount || 0) + 1 } : post));
+        loadComments(postId);
       }
     } catch (error) {
       console.error('Error adding comment:', error);
@@ -545,7 +562,7 @@ const FeedPage = () => {
             return comment;
           });
           
-          return { ...post, comments: updatedComments };
+          return { ...post, comments: updatedComments, commentCount: (post.commentCount || 0) + 1 };
         }
         return post;
       }));
@@ -942,7 +959,7 @@ const FeedPage = () => {
                       onClick={() => toggleComments(post.id)}
                     >
                       <MessageCircle size={18} color="#4B5563" />
-                      <span>{post.comments?.length || 0} Comments</span>
+                      <span>{post.commentCount ?? post.comments?.length ?? 0} Comments</span>
                     </button>
                     
                     <button style={styles.interactionButton}>
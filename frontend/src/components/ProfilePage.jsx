@@ -7,6 +7,7 @@ import {
 } from 'lucide-react';
 import NavBar from './NavBar'; 
 import axios from 'axios';
+import { fetchCommentThreads } from '../utils/comments';
 
 const spinKeyframes = '@keyframes spin { 0% { transform: rotate(0deg); } 100% { transform: rotate(360deg); } }';
 
@@ -149,40 +150,8 @@ const ProfilePage = () => {
           hashtags: post.hashtags ? post.hashtags.map(tag => tag.name) : [],
           images: post.imageUrls || [],
           videos: post.videoUrls || [],
-          comments: (post.comments || []).map(comment => {
-            const isOwnComment = comment.author.username === loggedInUsername;
-            
-            return {
-              id: comment.id,
-              text: comment.text,
-              date: comment.date,
-              likes: comment.likes || 0,
-              author: {
-                username: comment.author.username,
-                name: isOwnComment ? 'You' : comment.author.name,
-                profilePhoto: isOwnComment ? 
-                  getFullImageUrl(userData.profilePhoto) : 
-                  getFullImageUrl(comment.author.profilePhoto)
-              },
-              replies: (comment.replies || []).map(reply => {
-                const isOwnReply = reply.author.username === loggedInUsername;
-                
-                return {
-                  id: reply.id,
-                  text: reply.text,
-                  date: reply.date,
-                  likes: reply.likes || 0,
-                  author: {
-                    username: reply.author.username,
-                    name: isOwnReply ? 'You' : reply.author.name,
-                    profilePhoto: isOwnReply ? 
-                      getFullImageUrl(userData.profilePhoto) : 
-                      getFullImageUrl(reply.author.profilePhoto)
-                  }
-                };
-              })
-            };
-          }),
+          commentCount: post.commentCount,
+          comments: (post.comments || []).map(comment => formatComment(comment, userData.profilePhoto)),
           author: {
             username: post.authorUsername || userData.username,
             name: post.authorName || `${userData.firstName} ${userData.lastName}`,
@@ -484,7 +453,7 @@ const submitReply = async (postId, commentId) => {
           return comment;
         });
         
-        return { ...post, comments: updatedComments };
+        return { ...post, comments: updatedComments, commentCount: (post.commentCount || 0) + 1 };
       }
       return post;
     }));
@@ -517,10 +486,48 @@ const handleDeletePost = async (postId) => {
   }
 };
 
+  const formatComment = (comment, ownProfilePhoto) => {
+    const isOwnComment = comment.author.username === loggedInUsername;
+    
+    return {
+      id: comment.id,
+      text: comment.text,
+      date: comment.date,
+      likes: comment.likes || 0,
+      author: {
+        username: comment.author.username,
+        name: isOwnComment ? 'You' : comment.author.name,
+        profilePhoto: isOwnComment ? 
+          getFullImageUrl(ownProfilePhoto) : 
+          getFullImageUrl(comment.author.profilePhoto)
+      },
+      replies: (comment.replies || []).map(reply => formatComment(reply, ownProfilePhoto))
+    };
+  };
+
+  // Posts only carry a preview of their comments; the full threads are loaded when a
+  // post's comments are opened.
+  const loadComments = async (postId) => {
+    try {
+      const threads = await fetchCommentThreads(postId);
+      const profilePhotoUrl = isOwnProfile 
+        ? userData.profilePhoto 
+        : loggedInUserData?.profilePhoto;
+      const comments = threads.map(comment => formatComment(comment, profilePhotoUrl));
+      setPosts(prev => prev.map(post => post.id === postId ? { ...post, comments, commentsLoaded: true } : post));
+    } catch (error) {
+      console.error('Error fetching comments:', error);
+    }
+  };
+
   const toggleComments = (postId) => {
     if (expandedComments.includes(postId)) {
       setExpandedComments(expandedComments.filter(id => id !== postId));
     } else {
+      const post = posts.find(p => p.id === postId);
+      if (post && !post.commentsLoaded) {
+        loadComments(postId);
+      }
       setExpandedComments([...expandedComments, postId]);
     }
   };
@@ -566,7 +573,8 @@ const handleComment = async (postId) => {
         };
         return { 
           ...post, 
-          comments: [...(post.comments || []), newComment]
+          comments: [...(post.comments || []), newComment],
+          commentCount: (post.commentCount || 0) + 1
         };
       }
       return post;
@@ -1233,7 +1241,7 @@ const handleComment = async (postId) => {
                       onClick={() => toggleComments(post.id)}
                     >
                       <MessageCircle size={18} color="#4B5563" />
-                      <span>{post.comments?.length || 0} Comments</span>
+                      <span>{post.commentCount ?? post.comments?.length ?? 0} Comments</span>
                     </button>
                     
                     <button style={styles.interactionButton}>
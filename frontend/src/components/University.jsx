@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { MapPin, Mail, Phone, Link as LinkIcon, Calendar, Clock, ChevronDown, ThumbsUp, MessageSquare, Share2, User, Send, Heart, BookOpen, Award, Edit, X, Image, Film, MoreVertical, MessageCircle } from 'lucide-react';
 import axios from 'axios';
+import { fetchCommentThreads } from '../utils/comments';
 import NavBar from './NavBar';
 import { useNavigate } from 'react-router-dom';
 
@@ -154,6 +155,7 @@ const University = () => {
               hashtags: post.hashtags?.map(tag => tag.name) || [],
               images: post.imageUrls || [],
               videos: post.videoUrls || [],
+              commentCount: post.commentCount,
               comments: post.comments || [],
               author: {
                 username: post.username,
@@ -434,7 +436,8 @@ const sortEventsByDate = (events) => {
           };
           return {
             ...post,
-            comments: [...(post.comments || []), newComment]
+            comments: [...(post.comments || []), newComment],
+            commentCount: (post.commentCount || 0) + 1
           };
         }
         return post;
@@ -461,10 +464,25 @@ const sortEventsByDate = (events) => {
     }
   };
 
+  // Posts only carry a preview of their comments; the full threads are loaded when a
+  // post's comments are opened.
+  const loadComments = async (postId) => {
+    try {
+      const comments = await fetchCommentThreads(postId);
+      setPosts(prev => prev.map(post => post.id === postId ? { ...post, comments, commentsLoaded: true } : post));
+    } catch (error) {
+      console.error('Error fetching comments:', error);
+    }
+  };
+
   const toggleComments = (postId) => {
     if (expandedComments.includes(postId)) {
       setExpandedComments(expandedComments.filter(id => id !== postId));
     } else {
+      const post = posts.find(p => p.id === postId);
+      if (post && !post.commentsLoaded) {
+        loadComments(postId);
+      }
       setExpandedComments([...expandedComments, postId]);
     }
   };
@@ -572,7 +590,7 @@ const sortEventsByDate = (events) => {
             }
             return comment;
           });
-          return { ...post, comments: updatedComments };
+          return { ...post, comments: updatedComments, commentCount: (post.commentCount || 0) + 1 };
         }
         return post;
       }));
@@ -1226,7 +1244,7 @@ const sortEventsByDate = (events) => {
                       onClick={() => toggleComments(post.id)}
                     >
                       <MessageCircle size={18} color="#4B5563" />
-                      <span>{post.comments?.length || 0} Comments</span>
+                      <span>{post.commentCount ?? post.comments?.length ?? 0} Comments</span>
                     </button>
 
                     <button style={styles.interactionButton}>
@@ -0,0 +1,28 @@
+const API_BASE = 'http://localhost:8080/api/posts';
+const PAGE_SIZE = 50;
+
+// Post lists only embed a preview of each post's comments; this loads every comment and
+// reply of one post, in the same shape the preview uses, for when its comments are opened.
+const fetchPages = async (url) => {
+  const items = [];
+  let cursor = null;
+  do {
+    const query = `limit=${PAGE_SIZE}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`;
+    const response = await fetch(`${url}?${query}`);
+    if (!response.ok) {
+      throw new Error(`Failed to fetch comments: ${response.status}`);
+    }
+    const page = await response.json();
+    items.push(...(page.comments || []));
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+};
+
+export const fetchCommentThreads = async (postId) => {
+  const comments = await fetchPages(`${API_BASE}/${postId}/comments`);
+  return Promise.all(comments.map(async (comment) => ({
+    ...comment,
+    replies: comment.replyCount > 0 ? await fetchPages(`${API_BASE}/comments/${comment.id}/replies`) : []
+  })));
+};